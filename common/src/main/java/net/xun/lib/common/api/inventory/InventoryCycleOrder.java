@@ -1,14 +1,15 @@
 package net.xun.lib.common.api.inventory;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.world.Container;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.player.Inventory;
 import net.xun.lib.common.api.inventory.slot.SlotRange;
 import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.StagedContainer;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 public enum InventoryCycleOrder {
@@ -22,31 +23,83 @@ public enum InventoryCycleOrder {
     /** Armor (36-39) → Offhand (40) → Main inventory */
     ARMOR_FIRST;
 
+    /** Cached tables per order; the cache is cleared once full */
+    private static final int MAX_CACHED_TABLES = 256;
+    /** Containers this large don't fit the cache key and always get a fresh table */
+    private static final int MAX_CACHED_SIZE = 1 << 21;
+    private static final int[] EMPTY_TABLE = new int[0];
+
+    /** Immutable order tables keyed by container size, range bounds and player flag */
+    private final Long2ObjectOpenHashMap<int[]> tables = new Long2ObjectOpenHashMap<>();
+
     /**
      * Generates slot access order based on container type and range constraints
      * @param container Target inventory
      * @param range Optional slot restriction (null for full inventory)
      * @return List of slots in processing order
+     * @see #getSlotTable(Container, SlotRange) Primitive variant
      */
     public List<Integer> getSlotOrder(Container container, @Nullable SlotRange range) {
         InventoryUtils.validateContainer(container, true);
+        return Collections.unmodifiableList(IntArrayList.wrap(getSlotTable(container, range)));
+    }
 
+    /**
+     * Gets the slot access order as a primitive array, without boxing slot indices.
+     * <p>
+     * Tables are computed once per (order, container size, range bounds, player inventory)
+     * and shared between calls, so the returned array <strong>must not be modified</strong>.
+     * Each order caches up to 256 tables and starts over once that limit is reached; containers
+     * of 2<sup>21</sup> slots or more are never cached. A range that resolves to no slots, such as
+     * {@link PlayerInventorySection#OFFHAND} on a chest, yields an empty table.
+     * Unlike {@link #getSlotOrder(Container, SlotRange)} the container is not validated.
+     *
+     * @param container Target inventory
+     * @param range Optional slot restriction (null for full inventory)
+     * @return Shared, read-only table of slots in processing order
+     */
+    public int[] getSlotTable(Container container, @Nullable SlotRange range) {
+        int size = container.getContainerSize();
         int minSlot = 0;
-        int maxSlot = container.getContainerSize() - 1;
+        int maxSlot = size - 1;
 
         if (range != null) {
-            Iterator<Integer> rangeIter = range.getSlots(container).iterator();
-            if (rangeIter.hasNext()) {
-                minSlot = rangeIter.next();
-                maxSlot = minSlot;
-                while (rangeIter.hasNext()) {
-                    maxSlot = rangeIter.next();
-                }
+            int start = range.getSafeStart(container);
+            int end = range.getSafeEnd(container);
+            if (start >= end) return EMPTY_TABLE;
+
+            minSlot = start;
+            maxSlot = end - 1;
+        }
+
+        boolean isPlayerInventory = isPlayerInventory(container);
+        if (size >= MAX_CACHED_SIZE) {
+            return buildTable(minSlot, maxSlot, isPlayerInventory);
+        }
+
+        long key = ((long) size << 43) | ((long) minSlot << 22) | ((long) maxSlot << 1) | (isPlayerInventory ? 1L : 0L);
+        synchronized (tables) {
+            int[] table = tables.get(key);
+            if (table == null) {
+                if (tables.size() >= MAX_CACHED_TABLES) tables.clear();
+                table = buildTable(minSlot, maxSlot, isPlayerInventory);
+                tables.put(key, table);
             }
+            return table;
         }
+    }
+
+    /**
+     * Checks for a player inventory, looking through transaction overlays and snapshots.
+     */
+    private static boolean isPlayerInventory(Container container) {
+        if (container instanceof StagedContainer staged) return staged.getDelegate() instanceof Inventory;
+        if (container instanceof InventorySnapshot snapshot) return snapshot.getSource() instanceof Inventory;
+        return container instanceof Inventory;
+    }
 
-        boolean isPlayerInventory = container instanceof Player;
-        List<Integer> slots = new ArrayList<>();
+    private int[] buildTable(int minSlot, int maxSlot, boolean isPlayerInventory) {
+        IntArrayList slots = new IntArrayList(Math.max(0, maxSlot - minSlot + 1));
 
         switch (this) {
             case FORWARD -> {
@@ -93,13 +146,11 @@ public enum InventoryCycleOrder {
 
                 // Remaining slots
                 for (int i = minSlot; i <= maxSlot; i++) {
-                    if ((i < 36 || i > 40) && !slots.contains(i)) {
-                        slots.add(i);
-                    }
+                    if (i < 36 || i > 40) slots.add(i);
                 }
             }
         }
 
-        return Collections.unmodifiableList(slots);
+        return slots.toIntArray();
     }
 }
@@ -0,0 +1,236 @@
+package net.xun.lib.common.api.inventory;
+
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.tracking.ContainerTracker;
+import net.xun.lib.common.api.util.InventoryUtils;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable copy of a container's contents, readable from any thread.
+ * <p>
+ * The snapshot is itself a read-only {@link Container}, so read-only {@link InventoryUtils} queries
+ * over its stacks (counts, searches, histograms) can run on it from a worker executor while the
+ * source keeps changing on the server thread. Mutating methods throw {@link UnsupportedOperationException}.
+ * <p>
+ * A plan computed off-thread is applied on a later tick through {@link #applyIfUnchanged(Consumer)},
+ * which only runs it if the source still holds the snapshotted contents:
+ *
+ * <pre>{@code
+ * InventorySnapshot snapshot = InventorySnapshot.of(chest);
+ * CompletableFuture.supplyAsync(() -> planCrafts(snapshot), workers)
+ *         .thenAcceptAsync(plan -> snapshot.applyIfUnchanged(plan::execute), server);
+ * }</pre>
+ *
+ * Staleness is detected through the source's {@link ContainerTracker} modification count when
+ * it has one, and by comparing a fingerprint of item, component hash and count per slot otherwise.
+ * <p>
+ * Slot rules cannot be copied, since they depend on the offered stack: {@link #canPlaceItem(int, ItemStack)}
+ * and {@link #getMaxStackSize(ItemStack)} are forwarded to the live source, so capacity and simulated insert
+ * queries honor furnace, brewing stand or custom stack limits. These rules read source state, such as the
+ * furnace's fuel slot or the level's brewing recipes, so they are <strong>server-thread only</strong>: both
+ * methods throw {@link IllegalStateException} when called from another thread than the one that took the
+ * snapshot.
+ * <p>
+ * Stacks returned by {@link #getItem(int)} are shared and must not be modified.
+ */
+public class InventorySnapshot implements Container {
+
+    private final Container source;
+    private final Thread owner = Thread.currentThread();
+    private final ItemStack[] stacks;
+    private final int[] hashes;
+    private final int maxStackSize;
+    private final long modCount;
+    private final long fingerprint;
+
+    private InventorySnapshot(Container source, ItemStack[] stacks, int[] hashes, int maxStackSize, long modCount, long fingerprint) {
+        this.source = source;
+        this.stacks = stacks;
+        this.hashes = hashes;
+        this.maxStackSize = maxStackSize;
+        this.modCount = modCount;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Copies a container's contents. Must be called on the thread owning the container.
+     *
+     * @param container Container to copy
+     * @return New snapshot
+     * @throws NullPointerException if container is null
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public static InventorySnapshot of(Container container) {
+        InventoryUtils.validateContainer(container, true);
+
+        int size = container.getContainerSize();
+        ItemStack[] stacks = new ItemStack[size];
+        int[] hashes = new int[size];
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (stack.isEmpty()) {
+                stacks[slot] = ItemStack.EMPTY;
+            } else {
+                stacks[slot] = stack.copy();
+                hashes[slot] = ItemStack.hashItemAndComponents(stack);
+            }
+        }
+
+        ContainerTracker tracker = ContainerTracker.of(container);
+        return new InventorySnapshot(container, stacks, hashes, container.getMaxStackSize(),
+                tracker != null ? tracker.getModificationCount() : -1L, fingerprint(stacks, hashes));
+    }
+
+    // ======================== STALENESS ======================== //
+
+    /**
+     * @return The snapshotted container
+     */
+    public Container getSource() {
+        return source;
+    }
+
+    /**
+     * Checks whether the source changed since the snapshot. Must be called on the thread owning the source.
+     *
+     * @return True if the source's contents may differ from this snapshot
+     */
+    public boolean isStale() {
+        if (source.getContainerSize() != stacks.length) return true;
+
+        ContainerTracker tracker = ContainerTracker.of(source);
+        if (tracker != null) return tracker.getModificationCount() != modCount;
+
+        long current = 17L;
+        for (int slot = 0; slot < stacks.length; slot++) {
+            ItemStack stack = source.getItem(slot);
+            current = mix(current, stack.isEmpty() ? 0 : ItemStack.hashItemAndComponents(stack), stack.getCount());
+        }
+        return current != fingerprint;
+    }
+
+    /**
+     * Runs a plan against the source container if it did not change since the snapshot.
+     * Must be called on the thread owning the source.
+     *
+     * @param plan Operations to apply to the source
+     * @return True if the plan ran, false if the snapshot was stale
+     * @throws NullPointerException if plan is null
+     */
+    public boolean applyIfUnchanged(Consumer<Container> plan) {
+        Objects.requireNonNull(plan, "Plan cannot be null");
+        if (isStale()) return false;
+
+        plan.accept(source);
+        return true;
+    }
+
+    /**
+     * Gets the hash of a slot's item and components, as computed by {@link ItemStack#hashItemAndComponents}.
+     *
+     * @param slot Slot index
+     * @return The hash, 0 for empty slots
+     */
+    public int getComponentHash(int slot) {
+        return hashes[slot];
+    }
+
+    // ======================== CONTAINER ======================== //
+
+    @Override
+    public int getContainerSize() {
+        return stacks.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (ItemStack stack : stacks) {
+            if (!stack.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ItemStack getItem(int slot) {
+        return stacks[slot];
+    }
+
+    @Override
+    public int getMaxStackSize() {
+        return maxStackSize;
+    }
+
+    /**
+     * Forwards to the live source. Only callable on the thread that took the snapshot.
+     *
+     * @throws IllegalStateException if called from another thread
+     */
+    @Override
+    public int getMaxStackSize(ItemStack stack) {
+        checkOwnerThread();
+        return source.getMaxStackSize(stack);
+    }
+
+    /**
+     * Forwards to the live source. Only callable on the thread that took the snapshot.
+     *
+     * @throws IllegalStateException if called from another thread
+     */
+    @Override
+    public boolean canPlaceItem(int slot, ItemStack stack) {
+        checkOwnerThread();
+        return source.canPlaceItem(slot, stack);
+    }
+
+    @Override
+    public ItemStack removeItem(int slot, int amount) {
+        throw new UnsupportedOperationException("Inventory snapshots are read-only");
+    }
+
+    @Override
+    public ItemStack removeItemNoUpdate(int slot) {
+        throw new UnsupportedOperationException("Inventory snapshots are read-only");
+    }
+
+    @Override
+    public void setItem(int slot, ItemStack stack) {
+        throw new UnsupportedOperationException("Inventory snapshots are read-only");
+    }
+
+    @Override
+    public void clearContent() {
+        throw new UnsupportedOperationException("Inventory snapshots are read-only");
+    }
+
+    @Override
+    public void setChanged() {}
+
+    @Override
+    public boolean stillValid(Player player) {
+        return true;
+    }
+
+    // ======================== HELPER METHODS ======================== //
+
+    private void checkOwnerThread() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Slot rules of a snapshot's source can only be read on the thread that took the snapshot");
+        }
+    }
+
+    private static long fingerprint(ItemStack[] stacks, int[] hashes) {
+        long fingerprint = 17L;
+        for (int slot = 0; slot < stacks.length; slot++) {
+            fingerprint = mix(fingerprint, hashes[slot], stacks[slot].getCount());
+        }
+        return fingerprint;
+    }
+
+    private static long mix(long fingerprint, int hash, int count) {
+        return (fingerprint * 31L + hash) * 31L + count;
+    }
+}
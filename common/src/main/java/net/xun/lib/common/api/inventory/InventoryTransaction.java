@@ -0,0 +1,224 @@
+package net.xun.lib.common.api.inventory;
+
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import net.xun.lib.common.internal.inventory.StagedContainer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * All-or-nothing batch of inventory operations across one or more containers.
+ * <p>
+ * Operations are queued through the fluent methods and executed by {@link #commit()}:
+ * <ul>
+ *   <li>Every involved container is validated once</li>
+ *   <li>Operations run in queue order against a copy-on-write overlay of each container</li>
+ *   <li>Consecutive inserts into the same container share a single scan</li>
+ *   <li>If every operation is fully satisfied, only the changed slots are written back
+ *   and {@link Container#setChanged()} fires once per container</li>
+ *   <li>Otherwise nothing is written, leaving all containers untouched</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * boolean crafted = InventoryTransaction.create()
+ *         .extract(input, InventoryPredicate.matchesItem(Items.IRON_INGOT), 3, null, InventoryCycleOrder.FORWARD)
+ *         .extract(input, InventoryPredicate.matchesItem(Items.STICK), 2, null, InventoryCycleOrder.FORWARD)
+ *         .insert(output, new ItemStack(Items.IRON_PICKAXE))
+ *         .commit();
+ * }</pre>
+ *
+ * Instances are not thread-safe and intended for server thread use.
+ *
+ * @see InventoryUtils For single operations
+ */
+public class InventoryTransaction {
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private InventoryTransaction() {}
+
+    /**
+     * Creates an empty transaction.
+     *
+     * @return New transaction instance
+     */
+    public static InventoryTransaction create() {
+        return new InventoryTransaction();
+    }
+
+    /**
+     * Queues removal of exactly {@code amount} matching items.
+     *
+     * @param container Container to remove from
+     * @param predicate Item matching logic
+     * @param amount Number of items that must be removed (≥1)
+     * @param slots Optional slot range restriction
+     * @param order Slot processing order
+     * @return This transaction
+     * @throws NullPointerException if container, predicate or order is null
+     */
+    public InventoryTransaction extract(Container container, InventoryPredicate predicate, int amount, @Nullable SlotRange slots, InventoryCycleOrder order) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(order, "Removal order cannot be null");
+        if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
+
+        operations.add(new Extract(container, predicate, amount, slots, order));
+        return this;
+    }
+
+    /**
+     * Queues insertion of a stack, which must fit completely.
+     *
+     * @param container Target inventory
+     * @param stack Item stack to add (will not be modified)
+     * @return This transaction
+     * @throws NullPointerException if container or stack is null
+     */
+    public InventoryTransaction insert(Container container, ItemStack stack) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        Objects.requireNonNull(stack, "ItemStack cannot be null");
+
+        if (stack.isEmpty()) return this;
+
+        // Consecutive inserts into the same container share one planner pass
+        if (!operations.isEmpty() && operations.get(operations.size() - 1) instanceof Insert last && last.container() == container) {
+            last.stacks().add(stack.copy());
+        } else {
+            List<ItemStack> stacks = new ArrayList<>();
+            stacks.add(stack.copy());
+            operations.add(new Insert(container, stacks));
+        }
+        return this;
+    }
+
+    /**
+     * Queues moving exactly {@code amount} matching items from one container into another.
+     * The removed stacks keep their components and must fit completely into the destination.
+     *
+     * @param from Source container
+     * @param to Destination container
+     * @param predicate Item matching logic
+     * @param amount Number of items that must be moved (≥1)
+     * @param fromSlots Optional source slot range restriction
+     * @param order Source slot processing order
+     * @return This transaction
+     * @throws NullPointerException if any container, predicate or order is null
+     */
+    public InventoryTransaction move(Container from, Container to, InventoryPredicate predicate, int amount, @Nullable SlotRange fromSlots, InventoryCycleOrder order) {
+        Objects.requireNonNull(from, "Source container cannot be null");
+        Objects.requireNonNull(to, "Destination container cannot be null");
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(order, "Removal order cannot be null");
+        if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
+
+        operations.add(new Move(from, to, predicate, amount, fromSlots, order));
+        return this;
+    }
+
+    /**
+     * Executes all queued operations, applying them only if every one is fully satisfied.
+     *
+     * @return True if the changes were applied, false if the transaction was rolled back
+     * @throws IllegalStateException if a container is accessed client-side
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public boolean commit() {
+        Map<Container, StagedContainer> staging = execute();
+        if (staging == null) return false;
+
+        for (StagedContainer staged : staging.values()) {
+            staged.applyTo();
+        }
+        return true;
+    }
+
+    /**
+     * Executes all queued operations without modifying any container.
+     *
+     * @return True if {@link #commit()} would currently succeed
+     * @throws IllegalStateException if a container is accessed client-side
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public boolean simulate() {
+        return execute() != null;
+    }
+
+    /**
+     * Runs the operations against staged overlays.
+     *
+     * @return The overlays, or null if any operation could not be fully satisfied
+     */
+    @Nullable
+    private Map<Container, StagedContainer> execute() {
+        Map<Container, StagedContainer> staging = new IdentityHashMap<>();
+        for (Operation operation : operations) {
+            for (Container container : operation.containers()) {
+                staging.computeIfAbsent(container, c -> {
+                    InventoryUtils.validateContainer(c);
+                    return new StagedContainer(c);
+                });
+            }
+        }
+
+        for (Operation operation : operations) {
+            if (!operation.apply(staging)) return null;
+        }
+        return staging;
+    }
+
+    private interface Operation {
+        Container[] containers();
+
+        boolean apply(Map<Container, StagedContainer> staging);
+    }
+
+    private record Extract(Container container, InventoryPredicate predicate, int amount,
+                           @Nullable SlotRange slots, InventoryCycleOrder order) implements Operation {
+        @Override
+        public Container[] containers() {
+            return new Container[] { container };
+        }
+
+        @Override
+        public boolean apply(Map<Container, StagedContainer> staging) {
+            return InventoryOps.extract(staging.get(container), predicate, amount, slots, order, null) == amount;
+        }
+    }
+
+    private record Insert(Container container, List<ItemStack> stacks) implements Operation {
+        @Override
+        public Container[] containers() {
+            return new Container[] { container };
+        }
+
+        @Override
+        public boolean apply(Map<Container, StagedContainer> staging) {
+            return InventoryOps.insert(staging.get(container), stacks, false).isEmpty();
+        }
+    }
+
+    private record Move(Container from, Container to, InventoryPredicate predicate, int amount,
+                        @Nullable SlotRange fromSlots, InventoryCycleOrder order) implements Operation {
+        @Override
+        public Container[] containers() {
+            return new Container[] { from, to };
+        }
+
+        @Override
+        public boolean apply(Map<Container, StagedContainer> staging) {
+            List<ItemStack> removed = new ArrayList<>();
+            if (InventoryOps.extract(staging.get(from), predicate, amount, fromSlots, order, removed) != amount) return false;
+            return InventoryOps.insert(staging.get(to), removed, false).isEmpty();
+        }
+    }
+}
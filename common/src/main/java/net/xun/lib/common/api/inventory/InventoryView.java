@@ -0,0 +1,291 @@
+package net.xun.lib.common.api.inventory;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.inventory.slot.SlotStackVisitor;
+import net.xun.lib.common.api.inventory.tracking.ContainerTracker;
+import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Container handle that amortizes {@link InventoryUtils#validateContainer(Container)} across calls.
+ * <p>
+ * The container is re-validated only when one of the following changed since the last validation:
+ * <ul>
+ *   <li>The container size</li>
+ *   <li>The modification count, for {@link net.xun.lib.common.api.inventory.tracking.TrackedContainer}s</li>
+ *   <li>The game time, for block entity and entity containers</li>
+ * </ul>
+ * Every method otherwise behaves like its {@link InventoryUtils} counterpart, including argument checks.
+ *
+ * <pre>{@code
+ * InventoryView view = InventoryUtils.view(chest);
+ * for (ItemStack stack : incoming) {
+ *     if (view.getAvailableSpace() == 0) break;
+ *     view.insertItem(stack);
+ * }
+ * }</pre>
+ *
+ * Instances are not thread-safe and intended for server thread use.
+ */
+public class InventoryView {
+
+    private final Container container;
+    @Nullable
+    private final ContainerTracker tracker;
+    @Nullable
+    private final Entity entity;
+    @Nullable
+    private final BlockEntity blockEntity;
+
+    private int validatedSize;
+    private long validatedStamp;
+    private long calls;
+    private long revalidations;
+
+    /**
+     * Binds a view to a container and validates it.
+     *
+     * @param container Container to bind
+     * @throws NullPointerException if container is null
+     * @throws IllegalStateException if the container is client-side
+     * @throws IllegalArgumentException for invalid container states
+     * @see InventoryUtils#view(Container)
+     */
+    public InventoryView(Container container) {
+        this.container = Objects.requireNonNull(container, "Container cannot be null");
+        this.tracker = ContainerTracker.of(container);
+        this.entity = container instanceof Entity e ? e : null;
+        this.blockEntity = container instanceof BlockEntity be ? be : null;
+        revalidate();
+    }
+
+    // ======================== CORE CHECKS ======================== //
+
+    /**
+     * @see InventoryUtils#hasItemCount(Container, InventoryPredicate, int, SlotRange)
+     */
+    public boolean hasItemCount(InventoryPredicate predicate, int minCount, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
+
+        return InventoryOps.hasCount(container, predicate, minCount, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#hasItemCount(Container, Item, int, SlotRange)
+     */
+    public boolean hasItemCount(Item item, int minCount, @Nullable SlotRange slots) {
+        if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
+        return getItemCount(item, slots) >= minCount;
+    }
+
+    /**
+     * @see InventoryUtils#getItemCount(Container, Item, SlotRange)
+     */
+    public int getItemCount(Item item, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(item, "Item cannot be null");
+
+        return InventoryOps.countItem(container, item, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#hasItem(Container, InventoryPredicate, SlotRange)
+     */
+    public boolean hasItem(InventoryPredicate predicate, @Nullable SlotRange slots) {
+        return hasItemCount(predicate, 1, slots);
+    }
+
+    // ======================== SLOT SEARCHING ======================== //
+
+    /**
+     * @see InventoryUtils#findFirstMatchingSlot(Container, InventoryPredicate, SlotRange)
+     */
+    public int findFirstMatchingSlot(InventoryPredicate predicate, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+
+        return InventoryOps.findFirst(container, predicate, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#findFirstSlot(Container, Item, SlotRange)
+     */
+    public int findFirstSlot(Item item, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(item, "Item cannot be null");
+
+        return InventoryOps.findFirstItem(container, item, start(slots), end(slots));
+    }
+
+    // ======================== ITEM MANAGEMENT ======================== //
+
+    /**
+     * @see InventoryUtils#extractItems(Container, InventoryPredicate, int, SlotRange, InventoryCycleOrder)
+     * @return Number of items removed
+     */
+    public int extractItems(InventoryPredicate predicate, int amount, @Nullable SlotRange slots, InventoryCycleOrder order) {
+        ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(order, "Removal order cannot be null");
+        if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
+
+        return InventoryOps.extract(container, predicate, amount, slots, order, null);
+    }
+
+    /**
+     * @see InventoryUtils#insertItem(Container, ItemStack)
+     */
+    public ItemStack insertItem(ItemStack stack) {
+        Objects.requireNonNull(stack, "ItemStack cannot be null");
+        List<ItemStack> leftovers = insertItems(List.of(stack), false);
+        return leftovers.isEmpty() ? ItemStack.EMPTY : leftovers.get(0);
+    }
+
+    /**
+     * @see InventoryUtils#insertItems(Container, List, boolean)
+     */
+    public ImmutableList<ItemStack> insertItems(List<ItemStack> stacks, boolean simulate) {
+        ensureValid();
+        Objects.requireNonNull(stacks, "Stacks cannot be null");
+
+        for (ItemStack stack : stacks) {
+            Objects.requireNonNull(stack, "ItemStack cannot be null");
+        }
+        return InventoryOps.insert(container, stacks, simulate);
+    }
+
+    /**
+     * Moves matching items from this view's container into another view's container.
+     *
+     * @see InventoryUtils#transfer(Container, Container, InventoryPredicate, int, SlotRange, SlotRange, InventoryCycleOrder)
+     */
+    public int transferTo(InventoryView to, InventoryPredicate predicate, int amount,
+                          @Nullable SlotRange fromSlots, @Nullable SlotRange toSlots, InventoryCycleOrder order) {
+        Objects.requireNonNull(to, "Destination view cannot be null");
+        ensureValid();
+        to.ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(order, "Removal order cannot be null");
+        if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
+        if (container == to.container) throw new IllegalArgumentException("Source and destination must be different containers");
+
+        return InventoryOps.transfer(container, to.container, predicate, amount, fromSlots, toSlots, order);
+    }
+
+    // ======================== UTILITY METHODS ======================== //
+
+    /**
+     * @see InventoryUtils#collectMatching(Container, InventoryPredicate, SlotRange)
+     */
+    public ImmutableList<ItemStack> collectMatching(InventoryPredicate predicate, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+
+        return InventoryOps.collect(container, predicate, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#forEachMatching(Container, InventoryPredicate, SlotRange, SlotStackVisitor)
+     */
+    public void forEachMatching(InventoryPredicate predicate, @Nullable SlotRange slots, SlotStackVisitor visitor) {
+        ensureValid();
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(visitor, "Visitor cannot be null");
+
+        InventoryOps.forEachMatching(container, predicate, start(slots), end(slots), visitor);
+    }
+
+    /**
+     * @see InventoryUtils#histogram(Container, SlotRange)
+     */
+    public ItemHistogram histogram(@Nullable SlotRange slots) {
+        ensureValid();
+        return InventoryOps.histogram(container, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#capacityFor(Container, ItemStack, SlotRange)
+     */
+    public int capacityFor(ItemStack stack, @Nullable SlotRange slots) {
+        ensureValid();
+        Objects.requireNonNull(stack, "ItemStack cannot be null");
+
+        return InventoryOps.capacityFor(container, stack, start(slots), end(slots));
+    }
+
+    /**
+     * @see InventoryUtils#getAvailableSpace(Container)
+     */
+    public int getAvailableSpace() {
+        ensureValid();
+        return InventoryOps.countEmpty(container, 0, validatedSize);
+    }
+
+    // ======================== METRICS ======================== //
+
+    /**
+     * @return The bound container
+     */
+    public Container getContainer() {
+        return container;
+    }
+
+    /**
+     * @return Number of validated calls made through this view
+     */
+    public long getCallCount() {
+        return calls;
+    }
+
+    /**
+     * @return Number of times the container was validated, including on creation
+     */
+    public long getRevalidationCount() {
+        return revalidations;
+    }
+
+    // ======================== HELPER METHODS ======================== //
+
+    private void ensureValid() {
+        calls++;
+        if (container.getContainerSize() != validatedSize || currentStamp() != validatedStamp) {
+            revalidate();
+        }
+    }
+
+    private void revalidate() {
+        InventoryUtils.validateContainer(container);
+        validatedSize = container.getContainerSize();
+        validatedStamp = currentStamp();
+        revalidations++;
+    }
+
+    private long currentStamp() {
+        if (tracker != null) return tracker.getModificationCount();
+
+        Level level = entity != null ? entity.level() : blockEntity != null ? blockEntity.getLevel() : null;
+        return level != null ? level.getGameTime() : 0L;
+    }
+
+    private int start(@Nullable SlotRange slots) {
+        return slots != null ? slots.getSafeStart(container) : 0;
+    }
+
+    private int end(@Nullable SlotRange slots) {
+        return slots != null ? slots.getSafeEnd(container) : validatedSize;
+    }
+}
@@ -0,0 +1,126 @@
+package net.xun.lib.common.api.inventory;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.world.item.Item;
+
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable item count table keyed by raw item registry id.
+ * <p>
+ * Built in a single container pass by {@link net.xun.lib.common.api.util.InventoryUtils#histogram},
+ * so checking the availability of several item types costs one scan plus one primitive
+ * map lookup per question.
+ *
+ * <pre>{@code
+ * ItemHistogram contents = InventoryUtils.histogram(container, null);
+ * boolean canCraft = contents.hasCount(Items.IRON_INGOT, 3) && contents.hasCount(Items.STICK, 2);
+ * }</pre>
+ *
+ * @see net.xun.lib.common.api.util.InventoryUtils#histogram(net.minecraft.world.Container,
+ * net.xun.lib.common.api.item.fuzzy.FuzzyMatcher, net.xun.lib.common.api.inventory.slot.SlotRange)
+ * For counts grouped by fuzzy matching instead of item type
+ */
+public class ItemHistogram {
+
+    /** Shared empty histogram */
+    public static final ItemHistogram EMPTY = new ItemHistogram(new Int2IntOpenHashMap(0));
+
+    private final Int2IntOpenHashMap counts;
+
+    private ItemHistogram(Int2IntOpenHashMap counts) {
+        this.counts = counts;
+    }
+
+    /**
+     * Gets the total count of an item.
+     *
+     * @param item Item to look up
+     * @return Total count, 0 if absent
+     */
+    public int getCount(Item item) {
+        return counts.get(Item.getId(Objects.requireNonNull(item, "Item cannot be null")));
+    }
+
+    /**
+     * Gets the total count of an item by raw registry id.
+     *
+     * @param rawId Raw item id (see {@link Item#getId(Item)})
+     * @return Total count, 0 if absent
+     */
+    public int getCount(int rawId) {
+        return counts.get(rawId);
+    }
+
+    /**
+     * Checks whether at least {@code minCount} items of the given type were counted.
+     *
+     * @param item Item to look up
+     * @param minCount Required amount
+     * @return True if the count is sufficient
+     */
+    public boolean hasCount(Item item, int minCount) {
+        return getCount(item) >= minCount;
+    }
+
+    /**
+     * @return Number of distinct item types
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * @return True if no items were counted
+     */
+    public boolean isEmpty() {
+        return counts.size() == 0;
+    }
+
+    /**
+     * Visits every counted item.
+     *
+     * @param action Consumer receiving the item and its total count
+     */
+    public void forEach(ObjIntConsumer<Item> action) {
+        for (Int2IntMap.Entry entry : Int2IntMaps.fastIterable(counts)) {
+            action.accept(Item.byId(entry.getIntKey()), entry.getIntValue());
+        }
+    }
+
+    /**
+     * @return Unmodifiable primitive view of the raw item id → count table
+     */
+    public Int2IntMap asMap() {
+        return Int2IntMaps.unmodifiable(counts);
+    }
+
+    /**
+     * Mutable accumulator used to build histograms without boxing.
+     */
+    public static class Builder {
+        private final Int2IntOpenHashMap counts = new Int2IntOpenHashMap();
+
+        /**
+         * Adds to the count of an item.
+         *
+         * @param item Counted item
+         * @param count Amount to add
+         * @return This builder
+         */
+        public Builder add(Item item, int count) {
+            counts.addTo(Item.getId(item), count);
+            return this;
+        }
+
+        /**
+         * @return Immutable histogram of the accumulated counts
+         */
+        public ItemHistogram build() {
+            return counts.size() == 0 ? EMPTY : new ItemHistogram(counts.clone());
+        }
+    }
+}
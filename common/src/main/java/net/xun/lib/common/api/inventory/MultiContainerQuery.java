@@ -0,0 +1,226 @@
+package net.xun.lib.common.api.inventory;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only aggregate queries over many containers, evaluated in parallel.
+ * <p>
+ * {@link #of} takes an {@link InventorySnapshot} of every container on the calling (server) thread.
+ * Queries then run against these copies on a {@link ForkJoinPool}, one task per container,
+ * and merge the per-container results. The containers themselves are never touched after
+ * the snapshot, so all mutation stays on the server thread. Results reflect the contents at
+ * snapshot time; create a new query once the containers changed.
+ *
+ * <pre>{@code
+ * MultiContainerQuery network = MultiContainerQuery.of(linkedChests, null);
+ * network.hasCountAsync(InventoryPredicate.matchesItem(Items.IRON_INGOT), 64)
+ *         .thenAcceptAsync(enough -> updateDisplay(enough), server);
+ * }</pre>
+ *
+ * Predicates are evaluated concurrently from several pool threads and must therefore be thread-safe
+ * and free of side effects. Queries only read the copied stacks, never the slot rules an
+ * {@link InventorySnapshot} forwards to its source, which are server-thread only.
+ * {@link net.xun.lib.common.api.inventory.predicates.MemoizedPredicate} is safe to share; the statistics
+ * of an {@link net.xun.lib.common.api.inventory.predicates.AdaptivePredicate} race and become approximate,
+ * so prefer a plain {@code allOf}/{@code anyOf} here.
+ */
+public class MultiContainerQuery {
+
+    private final List<InventorySnapshot> snapshots;
+    @Nullable
+    private final SlotRange slots;
+    private final ForkJoinPool pool;
+
+    private MultiContainerQuery(List<InventorySnapshot> snapshots, @Nullable SlotRange slots, ForkJoinPool pool) {
+        this.snapshots = snapshots;
+        this.slots = slots;
+        this.pool = pool;
+    }
+
+    /**
+     * Snapshots the given containers for querying on the common fork-join pool.
+     * Must be called on the thread owning the containers.
+     *
+     * @param containers Containers to query
+     * @param slots Optional slot range applied to every container (null for entire containers)
+     * @return New query instance
+     * @throws NullPointerException if containers or any container is null
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public static MultiContainerQuery of(Collection<? extends Container> containers, @Nullable SlotRange slots) {
+        return of(containers, slots, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Snapshots the given containers for querying on a specific fork-join pool.
+     * Must be called on the thread owning the containers.
+     *
+     * @param containers Containers to query
+     * @param slots Optional slot range applied to every container (null for entire containers)
+     * @param pool Pool executing the queries
+     * @return New query instance
+     * @throws NullPointerException if containers, any container or pool is null
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public static MultiContainerQuery of(Collection<? extends Container> containers, @Nullable SlotRange slots, ForkJoinPool pool) {
+        Objects.requireNonNull(containers, "Containers cannot be null");
+        Objects.requireNonNull(pool, "Pool cannot be null");
+
+        List<InventorySnapshot> snapshots = new ArrayList<>(containers.size());
+        for (Container container : containers) {
+            snapshots.add(InventorySnapshot.of(container));
+        }
+        return new MultiContainerQuery(List.copyOf(snapshots), slots, pool);
+    }
+
+    // ======================== ASYNC QUERIES ======================== //
+
+    /**
+     * Counts the matching items across all containers.
+     *
+     * @param predicate Item matching logic
+     * @return Future completing with the total count
+     * @throws NullPointerException if predicate is null
+     */
+    public CompletableFuture<Long> countAsync(InventoryPredicate predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return CompletableFuture.supplyAsync(() -> snapshots.parallelStream()
+                .mapToLong(snapshot -> InventoryOps.count(snapshot, predicate, start(snapshot), end(snapshot)))
+                .sum(), pool);
+    }
+
+    /**
+     * Checks whether all containers together hold at least {@code minCount} matching items.
+     * Every task stops scanning as soon as the combined count reaches {@code minCount}.
+     *
+     * @param predicate Item matching logic
+     * @param minCount Minimum required items (≥1)
+     * @return Future completing with true if the combined count is sufficient
+     * @throws NullPointerException if predicate is null
+     */
+    public CompletableFuture<Boolean> hasCountAsync(InventoryPredicate predicate, long minCount) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
+
+        return CompletableFuture.supplyAsync(() -> {
+            AtomicLong total = new AtomicLong();
+            return snapshots.parallelStream().anyMatch(snapshot -> {
+                final int end = end(snapshot);
+                for (int slot = start(snapshot); slot < end; slot++) {
+                    if (total.get() >= minCount) return true;
+
+                    ItemStack stack = snapshot.getItem(slot);
+                    if (!stack.isEmpty() && predicate.test(stack) && total.addAndGet(stack.getCount()) >= minCount) {
+                        return true;
+                    }
+                }
+                return total.get() >= minCount;
+            });
+        }, pool);
+    }
+
+    /**
+     * Finds the first matching slot, preferring earlier containers and lower slots.
+     *
+     * @param predicate Item matching logic
+     * @return Future completing with the match, or empty if none
+     * @throws NullPointerException if predicate is null
+     */
+    public CompletableFuture<Optional<Match>> findFirstAsync(InventoryPredicate predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return CompletableFuture.supplyAsync(() -> IntStream.range(0, snapshots.size())
+                .parallel()
+                .mapToObj(index -> {
+                    InventorySnapshot snapshot = snapshots.get(index);
+                    int slot = InventoryOps.findFirst(snapshot, predicate, start(snapshot), end(snapshot));
+                    return slot < 0 ? null : new Match(snapshot.getSource(), slot);
+                })
+                .filter(Objects::nonNull)
+                .findFirst(), pool);
+    }
+
+    /**
+     * Collects copies of all matching stacks, in container and slot order.
+     *
+     * @param predicate Item matching logic
+     * @return Future completing with an immutable list of matching item copies
+     * @throws NullPointerException if predicate is null
+     */
+    public CompletableFuture<ImmutableList<ItemStack>> collectAsync(InventoryPredicate predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return CompletableFuture.supplyAsync(() -> snapshots.parallelStream()
+                .map(snapshot -> InventoryOps.collect(snapshot, predicate, start(snapshot), end(snapshot)))
+                .collect(ImmutableList.Builder<ItemStack>::new, ImmutableList.Builder::addAll,
+                        (left, right) -> left.addAll(right.build()))
+                .build(), pool);
+    }
+
+    // ======================== BLOCKING QUERIES ======================== //
+
+    /**
+     * Blocking variant of {@link #countAsync(InventoryPredicate)}.
+     */
+    public long count(InventoryPredicate predicate) {
+        return countAsync(predicate).join();
+    }
+
+    /**
+     * Blocking variant of {@link #hasCountAsync(InventoryPredicate, long)}.
+     */
+    public boolean hasCount(InventoryPredicate predicate, long minCount) {
+        return hasCountAsync(predicate, minCount).join();
+    }
+
+    /**
+     * Blocking variant of {@link #findFirstAsync(InventoryPredicate)}.
+     */
+    public Optional<Match> findFirst(InventoryPredicate predicate) {
+        return findFirstAsync(predicate).join();
+    }
+
+    /**
+     * Blocking variant of {@link #collectAsync(InventoryPredicate)}.
+     */
+    public ImmutableList<ItemStack> collect(InventoryPredicate predicate) {
+        return collectAsync(predicate).join();
+    }
+
+    /**
+     * @return The snapshots of the queried containers, in query order
+     */
+    public List<InventorySnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    private int start(InventorySnapshot snapshot) {
+        return InventoryOps.getRangeStart(snapshot, slots);
+    }
+
+    private int end(InventorySnapshot snapshot) {
+        return InventoryOps.getRangeEnd(snapshot, slots);
+    }
+
+    /**
+     * Location of a matching stack.
+     *
+     * @param container The container holding the stack
+     * @param slot Slot index within the container
+     */
+    public record Match(Container container, int slot) {}
+}
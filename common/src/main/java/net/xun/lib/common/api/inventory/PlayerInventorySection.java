@@ -30,11 +30,13 @@ public enum PlayerInventorySection {
     private final int start;
     private final int end;
     private final IntPredicate checker;
+    private final SlotRange slotRange;
 
     PlayerInventorySection(int start, int end) {
         this.start = start;
         this.end = end;
         this.checker = slot -> slot >= start && slot < end;
+        this.slotRange = SlotRange.of(start, end);
     }
 
     public int getStart() {
@@ -46,10 +48,10 @@ public enum PlayerInventorySection {
     }
 
     /**
-     * Creates a dynamic slot range that adapts to container size.
+     * Gets the slot range of this section. The range is shared and clamped to the container size when resolved.
      */
     public SlotRange getSlotRange() {
-        return new SlotRange(() -> start, () -> end);
+        return slotRange;
     }
 
     /**
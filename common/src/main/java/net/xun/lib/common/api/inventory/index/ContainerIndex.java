@@ -0,0 +1,352 @@
+package net.xun.lib.common.api.inventory.index;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMaps;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Incrementally maintained item index for a single container.
+ * <p>
+ * Keeps an {@code Item → slots} map (slots in ascending order) and a per-item total count,
+ * so item-keyed lookups cost O(matching slots) instead of O(container size). Empty slots and the
+ * remaining room of every item's stacks are tracked as well, answering "is this container full
+ * for item X" in O(1).
+ * <p>
+ * Single slots are re-indexed through {@link #onSetItem(int)}. Since item stacks can be grown
+ * or shrunk in place, {@link #onChanged()} only marks the index as stale: the next query compares
+ * every slot against the recorded stack reference and count, and re-indexes the slots that differ.
+ * This verification pass never calls predicates and never copies stacks.
+ * <p>
+ * Most containers call {@code setChanged()} from their own {@code setItem}. Such writes are wrapped in
+ * {@link #runReported(Runnable)}, so the notification they fire does not trigger a verification pass
+ * for a change that {@link #onSetItem(int)} already indexed.
+ * <p>
+ * Not thread-safe, intended for server thread use.
+ *
+ * @see IndexedContainer To opt a container into indexing
+ */
+public class ContainerIndex {
+
+    private static final ItemStack[] NO_STACKS = new ItemStack[0];
+    private static final Item[] NO_ITEMS = new Item[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Container container;
+    private final Reference2ObjectOpenHashMap<Item, IntArrayList> slotsByItem = new Reference2ObjectOpenHashMap<>();
+    private final Reference2IntOpenHashMap<Item> totals = new Reference2IntOpenHashMap<>();
+    private final Reference2IntOpenHashMap<Item> room = new Reference2IntOpenHashMap<>();
+    private final BitSet emptySlots = new BitSet();
+
+    private ItemStack[] stacks = NO_STACKS;
+    private Item[] items = NO_ITEMS;
+    private int[] counts = NO_COUNTS;
+    private int[] limits = NO_COUNTS;
+    private int emptyCount;
+    private boolean stale = true;
+    private int reportedDepth;
+
+    /**
+     * Creates an index for the given container.
+     * <p>
+     * The container is not read until the first query, so it is safe to create
+     * the index from the container's own field initializers.
+     *
+     * @param container Container to index
+     * @throws NullPointerException if container is null
+     */
+    public ContainerIndex(Container container) {
+        this.container = Objects.requireNonNull(container, "Container cannot be null");
+    }
+
+    // ======================== CHANGE NOTIFICATIONS ======================== //
+
+    /**
+     * Re-indexes a single slot. Call after the slot's stack was replaced or modified.
+     *
+     * @param slot The changed slot
+     */
+    public void onSetItem(int slot) {
+        if (stale || slot < 0 || slot >= stacks.length) return;
+        indexSlot(slot);
+    }
+
+    /**
+     * Marks the index for verification on the next query.
+     * Call whenever stacks may have been modified in place, typically from {@link Container#setChanged()}.
+     * Ignored while a {@linkplain #runReported(Runnable) reported write} is running.
+     */
+    public void onChanged() {
+        if (reportedDepth == 0) stale = true;
+    }
+
+    /**
+     * Runs a write whose changes are reported to the index slot by slot, typically the container's
+     * own {@code setItem} followed by {@link #onSetItem(int)}. {@link #onChanged()} notifications fired
+     * during the write do not mark the index as stale.
+     *
+     * @param write The write to run
+     */
+    public void runReported(Runnable write) {
+        reportedDepth++;
+        try {
+            write.run();
+        } finally {
+            reportedDepth--;
+        }
+    }
+
+    /**
+     * Discards all indexed data and rebuilds it from the container.
+     */
+    public void rebuild() {
+        int size = container.getContainerSize();
+        slotsByItem.clear();
+        totals.clear();
+        room.clear();
+        emptySlots.clear();
+        emptyCount = 0;
+        stacks = new ItemStack[size];
+        items = new Item[size];
+        counts = new int[size];
+        limits = new int[size];
+
+        for (int slot = 0; slot < size; slot++) {
+            indexSlot(slot);
+        }
+        stale = false;
+    }
+
+    // ======================== QUERIES ======================== //
+
+    /**
+     * Gets the total count of an item in the whole container.
+     *
+     * @param item Item to count
+     * @return Total number of items, 0 if absent
+     */
+    public int getCount(Item item) {
+        refresh();
+        return totals.getInt(item);
+    }
+
+    /**
+     * Gets the total count of an item within a slot range.
+     *
+     * @param item Item to count
+     * @param start First slot (inclusive)
+     * @param end Last slot (exclusive)
+     * @return Total number of items in the range, 0 if absent
+     */
+    public int getCount(Item item, int start, int end) {
+        refresh();
+        if (start <= 0 && end >= counts.length) return totals.getInt(item);
+
+        IntArrayList slots = slotsByItem.get(item);
+        if (slots == null) return 0;
+
+        int[] elements = slots.elements();
+        int count = 0;
+        for (int i = lowerBound(slots, start); i < slots.size(); i++) {
+            int slot = elements[i];
+            if (slot >= end) break;
+            count += counts[slot];
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the container holds any stack of the item.
+     *
+     * @param item Item to look up
+     * @return True if at least one slot holds the item
+     */
+    public boolean contains(Item item) {
+        refresh();
+        return slotsByItem.containsKey(item);
+    }
+
+    /**
+     * Finds the lowest slot within a range holding the item.
+     *
+     * @param item Item to look up
+     * @param start First slot (inclusive)
+     * @param end Last slot (exclusive)
+     * @return Slot index, or -1 if none
+     */
+    public int findFirstSlot(Item item, int start, int end) {
+        refresh();
+        IntArrayList slots = slotsByItem.get(item);
+        if (slots == null) return -1;
+
+        int index = lowerBound(slots, start);
+        if (index >= slots.size()) return -1;
+
+        int slot = slots.getInt(index);
+        return slot < end ? slot : -1;
+    }
+
+    /**
+     * Visits the total count of every indexed item, without touching the container.
+     *
+     * @param action Consumer receiving each item and its total count
+     */
+    public void forEachTotal(ObjIntConsumer<Item> action) {
+        refresh();
+        for (Reference2IntMap.Entry<Item> entry : Reference2IntMaps.fastIterable(totals)) {
+            action.accept(entry.getKey(), entry.getIntValue());
+        }
+    }
+
+    /**
+     * @return Number of empty slots in the container
+     */
+    public int getEmptySlotCount() {
+        refresh();
+        return emptyCount;
+    }
+
+    /**
+     * Finds the next empty slot.
+     *
+     * @param from First slot to check (inclusive)
+     * @return Slot index, or -1 if none
+     */
+    public int nextEmptySlot(int from) {
+        refresh();
+        return emptySlots.nextSetBit(Math.max(0, from));
+    }
+
+    /**
+     * Gets the combined room left in the existing stacks of an item, regardless of their components.
+     *
+     * @param item Item to look up
+     * @return Items that could still be merged into existing stacks at most, 0 if absent or full
+     */
+    public int getFreeRoom(Item item) {
+        refresh();
+        return room.getInt(item);
+    }
+
+    /**
+     * Checks whether the container might accept more of an item, in O(1).
+     * A false result is exact; a true result may still be denied by components or slot rules.
+     *
+     * @param item Item to look up
+     * @return False if there is no empty slot and every stack of the item is full
+     */
+    public boolean hasRoomFor(Item item) {
+        refresh();
+        return emptyCount > 0 || room.getInt(item) > 0;
+    }
+
+    /**
+     * Gets the slots holding the item, in ascending order.
+     *
+     * @param item Item to look up
+     * @return Unmodifiable view of the slots, empty if absent
+     */
+    public IntList getSlots(Item item) {
+        refresh();
+        IntArrayList slots = slotsByItem.get(item);
+        return slots == null ? IntLists.emptyList() : IntLists.unmodifiable(slots);
+    }
+
+    // ======================== HELPER METHODS ======================== //
+
+    private void refresh() {
+        if (container.getContainerSize() != stacks.length) {
+            rebuild();
+            return;
+        }
+        if (!stale) return;
+
+        for (int slot = 0; slot < stacks.length; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (stack != stacks[slot] || stack.getCount() != counts[slot]) {
+                indexSlot(slot);
+            }
+        }
+        stale = false;
+    }
+
+    private void indexSlot(int slot) {
+        ItemStack stack = container.getItem(slot);
+        Item newItem = stack.isEmpty() ? null : stack.getItem();
+        int newCount = newItem == null ? 0 : stack.getCount();
+
+        Item oldItem = items[slot];
+        int oldCount = counts[slot];
+        int newLimit = newItem == null ? 0 : container.getMaxStackSize(stack);
+
+        if (oldItem != null) addTo(room, oldItem, -Math.max(0, limits[slot] - oldCount));
+        if (newItem != null) addTo(room, newItem, Math.max(0, newLimit - newCount));
+
+        boolean isEmpty = newItem == null;
+        if (emptySlots.get(slot) != isEmpty) {
+            emptySlots.set(slot, isEmpty);
+            emptyCount += isEmpty ? 1 : -1;
+        }
+
+        if (oldItem == newItem) {
+            if (newItem != null && oldCount != newCount) {
+                addToTotal(newItem, newCount - oldCount);
+            }
+        } else {
+            if (oldItem != null) {
+                removeSlot(oldItem, slot);
+                addToTotal(oldItem, -oldCount);
+            }
+            if (newItem != null) {
+                addSlot(newItem, slot);
+                addToTotal(newItem, newCount);
+            }
+        }
+
+        stacks[slot] = stack;
+        items[slot] = newItem;
+        counts[slot] = newCount;
+        limits[slot] = newLimit;
+    }
+
+    private void addSlot(Item item, int slot) {
+        IntArrayList slots = slotsByItem.computeIfAbsent(item, k -> new IntArrayList(4));
+        int index = Arrays.binarySearch(slots.elements(), 0, slots.size(), slot);
+        if (index < 0) slots.add(-index - 1, slot);
+    }
+
+    private void removeSlot(Item item, int slot) {
+        IntArrayList slots = slotsByItem.get(item);
+        if (slots == null) return;
+
+        int index = Arrays.binarySearch(slots.elements(), 0, slots.size(), slot);
+        if (index >= 0) slots.removeInt(index);
+        if (slots.isEmpty()) slotsByItem.remove(item);
+    }
+
+    private void addToTotal(Item item, int delta) {
+        addTo(totals, item, delta);
+    }
+
+    private static void addTo(Reference2IntOpenHashMap<Item> map, Item item, int delta) {
+        if (delta != 0 && map.addTo(item, delta) + delta == 0) {
+            map.removeInt(item);
+        }
+    }
+
+    private static int lowerBound(IntArrayList slots, int slot) {
+        int index = Arrays.binarySearch(slots.elements(), 0, slots.size(), slot);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package net.xun.lib.common.api.inventory.index;
+
+import net.minecraft.world.Container;
+
+/**
+ * Opt-in marker for containers that maintain a {@link ContainerIndex}.
+ * <p>
+ * {@link net.xun.lib.common.api.util.InventoryUtils} detects this interface and answers
+ * item-keyed queries from the index instead of scanning every slot. Implementations are
+ * responsible for keeping the index informed about content changes:
+ *
+ * <pre>{@code
+ * public class StorageBlockEntity extends BaseContainerBlockEntity implements IndexedContainer {
+ *     private final ContainerIndex index = new ContainerIndex(this);
+ *
+ *     @Override
+ *     public ContainerIndex getContainerIndex() {
+ *         return index;
+ *     }
+ *
+ *     @Override
+ *     public void setItem(int slot, ItemStack stack) {
+ *         // The setChanged() fired by super.setItem is covered by onSetItem
+ *         index.runReported(() -> super.setItem(slot, stack));
+ *         index.onSetItem(slot);
+ *     }
+ *
+ *     @Override
+ *     public void setChanged() {
+ *         super.setChanged();
+ *         index.onChanged();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see ContainerIndex
+ */
+public interface IndexedContainer extends Container {
+
+    /**
+     * Gets the index tracking this container's contents.
+     *
+     * @return The container index, never null
+     */
+    ContainerIndex getContainerIndex();
+}
@@ -0,0 +1,178 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Conjunction or disjunction that reorders its children based on observed cost and selectivity.
+ * <p>
+ * Every evaluation counts how often each child is run and passes; every {@value #SAMPLE_INTERVAL}th
+ * evaluation also measures the children's run time. Every {@value #REORDER_INTERVAL} evaluations
+ * the children are sorted by expected cost per decisive result, i.e. for {@code allOf} the
+ * cheapest children most likely to fail run first, and for {@code anyOf} the cheapest children
+ * most likely to pass. Counters are then halved so the order keeps adapting.
+ * <p>
+ * Since the children are combined by plain {@code &&} or {@code ||}, the result is the same in any
+ * order as long as the children are free of side effects. Counters are updated without
+ * synchronization; concurrent use stays correct but may lose samples.
+ * <p>
+ * Candidates don't depend on the order and are cached until the next tag reload or item registration.
+ *
+ * @see InventoryPredicate#adaptiveAllOf(List)
+ * @see InventoryPredicate#adaptiveAnyOf(List)
+ */
+public final class AdaptivePredicate implements InventoryPredicate {
+
+    private static final int SAMPLE_INTERVAL = 16;
+    private static final int REORDER_INTERVAL = 1024;
+
+    private final boolean allOf;
+    private final InventoryPredicate[] children;
+    private final long[] runs;
+    private final long[] passes;
+    private final long[] sampledRuns;
+    private final long[] sampledNanos;
+    private volatile int[] order;
+    private volatile CachedCandidates cached;
+    private long evaluations;
+    private long reorders;
+
+    AdaptivePredicate(boolean allOf, List<InventoryPredicate> children) {
+        Objects.requireNonNull(children, "Predicates cannot be null");
+        this.allOf = allOf;
+        this.children = children.toArray(new InventoryPredicate[0]);
+        for (InventoryPredicate child : this.children) {
+            Objects.requireNonNull(child, "Predicate cannot be null");
+        }
+
+        int size = this.children.length;
+        this.runs = new long[size];
+        this.passes = new long[size];
+        this.sampledRuns = new long[size];
+        this.sampledNanos = new long[size];
+        this.order = identity(size);
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        long evaluation = ++evaluations;
+        boolean sample = evaluation % SAMPLE_INTERVAL == 0;
+
+        boolean result = allOf;
+        for (int index : order) {
+            boolean passed;
+            if (sample) {
+                long start = System.nanoTime();
+                passed = children[index].test(stack);
+                sampledNanos[index] += System.nanoTime() - start;
+                sampledRuns[index]++;
+            } else {
+                passed = children[index].test(stack);
+            }
+
+            runs[index]++;
+            if (passed) passes[index]++;
+            if (passed != allOf) {
+                result = passed;
+                break;
+            }
+        }
+
+        if (evaluation % REORDER_INTERVAL == 0) reorder();
+        return result;
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        long stamp = ItemCandidates.currentStamp();
+        CachedCandidates current = cached;
+        if (current == null || current.stamp != stamp) {
+            ItemCandidates candidates = allOf ? ItemCandidates.ANY : ItemCandidates.NONE;
+            for (InventoryPredicate child : children) {
+                candidates = allOf ? candidates.intersect(child.candidates()) : candidates.union(child.candidates());
+            }
+            cached = current = new CachedCandidates(stamp, candidates);
+        }
+        return current.candidates;
+    }
+
+    // ======================== METRICS ======================== //
+
+    /**
+     * @return Total number of evaluations
+     */
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    /**
+     * @return Number of times the children were reordered
+     */
+    public long getReorderCount() {
+        return reorders;
+    }
+
+    /**
+     * Gets the statistics of every child, in current evaluation order.
+     * Counts are halved on every reorder and therefore describe recent behavior.
+     *
+     * @return Immutable list of child statistics
+     */
+    public ImmutableList<ChildStats> getChildStats() {
+        ImmutableList.Builder<ChildStats> stats = ImmutableList.builder();
+        for (int index : order) {
+            double averageNanos = sampledRuns[index] > 0 ? (double) sampledNanos[index] / sampledRuns[index] : Double.NaN;
+            stats.add(new ChildStats(children[index], runs[index], passes[index], averageNanos));
+        }
+        return stats.build();
+    }
+
+    /**
+     * Observed behavior of a child predicate.
+     *
+     * @param predicate The child predicate
+     * @param runs Number of times the child was evaluated
+     * @param passes Number of times the child matched
+     * @param averageNanos Average sampled run time, NaN if not sampled yet
+     */
+    public record ChildStats(InventoryPredicate predicate, long runs, long passes, double averageNanos) {}
+
+    private record CachedCandidates(long stamp, ItemCandidates candidates) {}
+
+    // ======================== HELPER METHODS ======================== //
+
+    private void reorder() {
+        int size = children.length;
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Children without samples score 0 and move to the front, so that they get measured
+            if (runs[i] == 0 || sampledRuns[i] == 0) continue;
+
+            double cost = (double) sampledNanos[i] / sampledRuns[i];
+            double decisive = (allOf ? runs[i] - passes[i] : passes[i]) / (double) runs[i];
+            scores[i] = cost / Math.max(decisive, 0.001);
+        }
+
+        int[] next = identity(size);
+        IntArrays.mergeSort(next, (a, b) -> Double.compare(scores[a], scores[b]));
+        order = next;
+        reorders++;
+
+        for (int i = 0; i < size; i++) {
+            runs[i] >>= 1;
+            passes[i] >>= 1;
+            sampledRuns[i] >>= 1;
+            sampledNanos[i] >>= 1;
+        }
+    }
+
+    private static int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) indices[i] = i;
+        return indices;
+    }
+}
@@ -0,0 +1,59 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Array-backed conjunction. Nested conjunctions are flattened into a single term array.
+ * Candidates are cached until the next tag reload or item registration.
+ */
+final class AllOfPredicate implements InventoryPredicate {
+
+    final InventoryPredicate[] terms;
+    private volatile CachedCandidates cached;
+
+    private AllOfPredicate(InventoryPredicate[] terms) {
+        this.terms = terms;
+    }
+
+    static InventoryPredicate of(List<? extends InventoryPredicate> predicates) {
+        List<InventoryPredicate> terms = new ArrayList<>(predicates.size());
+        for (InventoryPredicate predicate : predicates) {
+            Objects.requireNonNull(predicate, "Predicate cannot be null");
+            if (predicate instanceof AllOfPredicate allOf) {
+                terms.addAll(List.of(allOf.terms));
+            } else {
+                terms.add(predicate);
+            }
+        }
+        return terms.size() == 1 ? terms.get(0) : new AllOfPredicate(terms.toArray(new InventoryPredicate[0]));
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        for (InventoryPredicate term : terms) {
+            if (!term.test(stack)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        long stamp = ItemCandidates.currentStamp();
+        CachedCandidates current = cached;
+        if (current == null || current.stamp != stamp) {
+            ItemCandidates candidates = ItemCandidates.ANY;
+            for (InventoryPredicate term : terms) {
+                candidates = candidates.intersect(term.candidates());
+                if (candidates.isNone()) break;
+            }
+            cached = current = new CachedCandidates(stamp, candidates);
+        }
+        return current.candidates;
+    }
+
+    private record CachedCandidates(long stamp, ItemCandidates candidates) {}
+}
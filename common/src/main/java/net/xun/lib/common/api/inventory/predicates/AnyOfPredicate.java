@@ -0,0 +1,77 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Array-backed disjunction. Nested disjunctions are flattened and item set terms are
+ * merged into a single identity set lookup. Candidates are cached until the next tag reload
+ * or item registration.
+ */
+final class AnyOfPredicate implements InventoryPredicate {
+
+    final InventoryPredicate[] terms;
+    private volatile CachedCandidates cached;
+
+    private AnyOfPredicate(InventoryPredicate[] terms) {
+        this.terms = terms;
+    }
+
+    static InventoryPredicate of(List<? extends InventoryPredicate> predicates) {
+        List<InventoryPredicate> terms = new ArrayList<>(predicates.size());
+        List<Item> items = new ArrayList<>();
+        int itemTerms = 0;
+
+        for (InventoryPredicate predicate : predicates) {
+            Objects.requireNonNull(predicate, "Predicate cannot be null");
+            if (predicate instanceof AnyOfPredicate anyOf) {
+                for (InventoryPredicate term : anyOf.terms) {
+                    if (term instanceof ItemSetPredicate itemSet) {
+                        items.addAll(itemSet.getItems());
+                        itemTerms++;
+                    } else {
+                        terms.add(term);
+                    }
+                }
+            } else if (predicate instanceof ItemSetPredicate itemSet) {
+                items.addAll(itemSet.getItems());
+                itemTerms++;
+            } else {
+                terms.add(predicate);
+            }
+        }
+
+        // Item sets are tested first: a single identity lookup is the cheapest term
+        if (itemTerms > 0) terms.add(0, ItemSetPredicate.of(items));
+        return terms.size() == 1 ? terms.get(0) : new AnyOfPredicate(terms.toArray(new InventoryPredicate[0]));
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        for (InventoryPredicate term : terms) {
+            if (term.test(stack)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        long stamp = ItemCandidates.currentStamp();
+        CachedCandidates current = cached;
+        if (current == null || current.stamp != stamp) {
+            ItemCandidates candidates = ItemCandidates.NONE;
+            for (InventoryPredicate term : terms) {
+                candidates = candidates.union(term.candidates());
+                if (candidates.isAny()) break;
+            }
+            cached = current = new CachedCandidates(stamp, candidates);
+        }
+        return current.candidates;
+    }
+
+    private record CachedCandidates(long stamp, ItemCandidates candidates) {}
+}
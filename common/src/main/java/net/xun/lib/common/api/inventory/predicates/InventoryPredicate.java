@@ -6,14 +6,41 @@ import net.minecraft.world.item.ItemStack;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Predicate;
 
+/**
+ * Item stack predicate used by the inventory utilities.
+ * <p>
+ * Predicates built by the factories in this interface describe the items they can match through
+ * {@link #candidates()}, which lets indexed containers jump straight to the candidate slots.
+ * Custom implementations may override {@link #candidates()} as well.
+ */
 public interface InventoryPredicate extends Predicate<ItemStack> {
 
     InventoryPredicate IS_DAMAGED = stack -> stack != null && stack.isDamaged() && stack.isDamageableItem();
     InventoryPredicate IS_FULL_STACK = stack -> stack != null && !stack.isEmpty() && stack.getCount() >= stack.getMaxStackSize();
-    InventoryPredicate IS_EMPTY = stack -> stack == null || stack.isEmpty();
+    InventoryPredicate IS_EMPTY = new InventoryPredicate() {
+        @Override
+        public boolean test(ItemStack stack) {
+            return stack == null || stack.isEmpty();
+        }
+
+        @Override
+        public ItemCandidates candidates() {
+            return ItemCandidates.NONE;
+        }
+    };
+
+    /**
+     * Describes which items this predicate can match among non-empty stacks.
+     * <p>
+     * Must never exclude an item the predicate could accept. The default is {@link ItemCandidates#ANY}.
+     *
+     * @return The candidate items
+     */
+    default ItemCandidates candidates() {
+        return ItemCandidates.ANY;
+    }
 
     /**
      * Creates a predicate matching items of specific class hierarchy
@@ -21,12 +48,17 @@ public interface InventoryPredicate extends Predicate<ItemStack> {
      * @return New predicate instance
      */
     static InventoryPredicate ofType(Class<? extends Item> itemType) {
-        Objects.requireNonNull(itemType, "Item type class cannot be null");
-        return stack -> itemType.isInstance(stack.getItem());
+        return new TypePredicate(itemType);
     }
 
+    /**
+     * Creates a predicate matching when all given predicates match.
+     * <p>
+     * The predicates are copied into an array-backed evaluator: nested {@code allOf}/{@code and}
+     * combinations are flattened and later changes to the list are not reflected.
+     */
     static InventoryPredicate allOf(List<InventoryPredicate> predicates) {
-        return stack -> predicates.stream().allMatch(p -> p.test(stack));
+        return AllOfPredicate.of(predicates);
     }
 
     static InventoryPredicate allOf(InventoryPredicate... predicates) {
@@ -34,11 +66,18 @@ public interface InventoryPredicate extends Predicate<ItemStack> {
     }
 
     static InventoryPredicate allOf(InventoryPredicate predicate1, InventoryPredicate predicate2) {
-        return stack -> predicate1.test(stack) && predicate2.test(stack);
+        return allOf(Arrays.asList(predicate1, predicate2));
     }
 
+    /**
+     * Creates a predicate matching when any of the given predicates matches.
+     * <p>
+     * The predicates are copied into an array-backed evaluator: nested {@code anyOf}/{@code or}
+     * combinations are flattened, item matchers are merged into a single set lookup and later
+     * changes to the list are not reflected.
+     */
     static InventoryPredicate anyOf(List<InventoryPredicate> predicates) {
-        return stack -> predicates.stream().anyMatch(p -> p.test(stack));
+        return AnyOfPredicate.of(predicates);
     }
 
     static InventoryPredicate anyOf(InventoryPredicate... predicates) {
@@ -46,34 +85,73 @@ public interface InventoryPredicate extends Predicate<ItemStack> {
     }
 
     static InventoryPredicate anyOf(InventoryPredicate predicate1, InventoryPredicate predicate2) {
-        return stack -> predicate1.test(stack) || predicate2.test(stack);
+        return anyOf(Arrays.asList(predicate1, predicate2));
+    }
+
+    /**
+     * Creates a conjunction that learns which predicates are cheap and likely to fail, and runs them first.
+     *
+     * @param predicates Side-effect free predicates to combine
+     * @return Adaptive predicate exposing its evaluation statistics
+     * @see AdaptivePredicate
+     */
+    static AdaptivePredicate adaptiveAllOf(List<InventoryPredicate> predicates) {
+        return new AdaptivePredicate(true, predicates);
+    }
+
+    /**
+     * Creates a disjunction that learns which predicates are cheap and likely to pass, and runs them first.
+     *
+     * @param predicates Side-effect free predicates to combine
+     * @return Adaptive predicate exposing its evaluation statistics
+     * @see AdaptivePredicate
+     */
+    static AdaptivePredicate adaptiveAnyOf(List<InventoryPredicate> predicates) {
+        return new AdaptivePredicate(false, predicates);
     }
 
+    /**
+     * Wraps an expensive predicate with a bounded LRU cache of its results per item and components.
+     * The stack count is ignored, so the predicate must not depend on it.
+     *
+     * @param predicate Side-effect free predicate to cache
+     * @param maxEntries Maximum number of cached results (≥1)
+     * @return Memoizing predicate exposing hit, miss and eviction counts
+     * @throws NullPointerException if predicate is null
+     * @see MemoizedPredicate
+     */
+    static MemoizedPredicate memoized(InventoryPredicate predicate, int maxEntries) {
+        return new MemoizedPredicate(predicate, maxEntries);
+    }
+
+    /**
+     * Creates a predicate matching non-empty stacks of any of the given items, using an identity set.
+     */
     static InventoryPredicate matchesItem(List<Item> items) {
-        return stack -> stack != null && !stack.isEmpty() && items.stream().anyMatch(stack::is);
+        return ItemSetPredicate.of(items);
     }
 
     static InventoryPredicate matchesItem(Item... items) {
-        return stack -> stack != null && !stack.isEmpty() && Arrays.stream(items).anyMatch(stack::is);
+        return matchesItem(Arrays.asList(items));
     }
 
     static InventoryPredicate matchesItem(Item item) {
-        return stack -> stack != null && !stack.isEmpty() && stack.is(item);
+        return matchesItem(List.of(item));
     }
 
     static InventoryPredicate matchesTag(TagKey<Item> itemTag) {
-        return stack -> stack != null && !stack.isEmpty() && stack.is(itemTag);
+        return new TagPredicate(itemTag);
     }
 
     default InventoryPredicate and(InventoryPredicate other) {
-        return stack -> test(stack) && other.test(stack);
+        return allOf(this, other);
     }
 
     default InventoryPredicate or(InventoryPredicate other) {
-        return stack -> test(stack) || other.test(stack);
+        return anyOf(this, other);
     }
 
     static InventoryPredicate not(InventoryPredicate predicate) {
-        return stack -> !predicate.test(stack);
+        return NotPredicate.of(predicate);
     }
 }
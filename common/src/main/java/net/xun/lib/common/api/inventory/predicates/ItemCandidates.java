@@ -0,0 +1,135 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.xun.lib.common.api.registries.TagBitsetCache;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The items a predicate can match among non-empty stacks: either a finite identity set or "any item".
+ * <p>
+ * Inventory queries use finite candidate sets to visit only the slots holding those items,
+ * e.g. through a {@link net.xun.lib.common.api.inventory.index.ContainerIndex}.
+ * A candidate set is an upper bound: every candidate stack is still tested against the predicate.
+ * <p>
+ * Built-in predicates cache their candidates until the {@linkplain #currentStamp() stamp} changes.
+ *
+ * @see InventoryPredicate#candidates()
+ */
+public final class ItemCandidates {
+
+    /** The predicate may match any item */
+    public static final ItemCandidates ANY = new ItemCandidates(null);
+    /** The predicate never matches a non-empty stack */
+    public static final ItemCandidates NONE = new ItemCandidates(ReferenceSets.emptySet());
+
+    @Nullable
+    private final ReferenceSet<Item> items;
+
+    private ItemCandidates(@Nullable ReferenceSet<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * Creates a finite candidate set.
+     *
+     * @param items Candidate items
+     * @return Candidates backed by an immutable copy of the items
+     * @throws NullPointerException if items or any item is null
+     */
+    public static ItemCandidates of(Iterable<Item> items) {
+        Objects.requireNonNull(items, "Items cannot be null");
+        ReferenceOpenHashSet<Item> set = new ReferenceOpenHashSet<>();
+        for (Item item : items) {
+            set.add(Objects.requireNonNull(item, "Item cannot be null"));
+        }
+        if (set.isEmpty()) return NONE;
+        set.trim();
+        return new ItemCandidates(ReferenceSets.unmodifiable(set));
+    }
+
+    /**
+     * @return True if any item may match
+     */
+    public boolean isAny() {
+        return items == null;
+    }
+
+    /**
+     * @return True if no non-empty stack can match
+     */
+    public boolean isNone() {
+        return items != null && items.isEmpty();
+    }
+
+    /**
+     * Gets the finite candidate set.
+     *
+     * @return Unmodifiable identity set of candidate items
+     * @throws IllegalStateException if the candidates are {@link #ANY}
+     */
+    public Set<Item> getItems() {
+        if (items == null) throw new IllegalStateException("Candidates are not finite");
+        return items;
+    }
+
+    /**
+     * @return Number of candidate items, or {@link Integer#MAX_VALUE} for {@link #ANY}
+     */
+    public int size() {
+        return items == null ? Integer.MAX_VALUE : items.size();
+    }
+
+    /**
+     * Checks whether stacks of an item may match.
+     *
+     * @param item Item to check
+     * @return True if the item is a candidate
+     */
+    public boolean mayMatch(Item item) {
+        return items == null || items.contains(item);
+    }
+
+    /**
+     * @return Candidates of a disjunction
+     */
+    public ItemCandidates union(ItemCandidates other) {
+        if (items == null || other.isNone()) return this;
+        if (other.items == null || isNone()) return other;
+
+        ReferenceOpenHashSet<Item> set = new ReferenceOpenHashSet<>(items);
+        set.addAll(other.items);
+        return new ItemCandidates(ReferenceSets.unmodifiable(set));
+    }
+
+    /**
+     * Gets a stamp of the inputs built-in candidate sets are derived from: the tag generation and
+     * the item registry size. Items are only added until the registry freezes, so an unchanged size
+     * means no item was registered since.
+     *
+     * @return Value that changes whenever cached candidates may be outdated
+     */
+    static long currentStamp() {
+        return (long) TagBitsetCache.getGeneration() << 32 | BuiltInRegistries.ITEM.size();
+    }
+
+    /**
+     * @return Candidates of a conjunction
+     */
+    public ItemCandidates intersect(ItemCandidates other) {
+        if (items == null || other.isNone()) return other;
+        if (other.items == null || isNone()) return this;
+
+        ReferenceOpenHashSet<Item> set = new ReferenceOpenHashSet<>();
+        for (Item item : items) {
+            if (other.items.contains(item)) set.add(item);
+        }
+        return set.isEmpty() ? NONE : new ItemCandidates(ReferenceSets.unmodifiable(set));
+    }
+}
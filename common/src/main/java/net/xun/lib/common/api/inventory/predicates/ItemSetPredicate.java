@@ -0,0 +1,48 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Matches non-empty stacks whose item is in a fixed identity set.
+ */
+final class ItemSetPredicate implements InventoryPredicate {
+
+    private final ReferenceSet<Item> items;
+    private final ItemCandidates candidates;
+
+    private ItemSetPredicate(ReferenceSet<Item> items) {
+        this.items = items;
+        this.candidates = ItemCandidates.of(items);
+    }
+
+    static ItemSetPredicate of(Collection<Item> items) {
+        ReferenceOpenHashSet<Item> set = new ReferenceOpenHashSet<>(items.size());
+        for (Item item : items) {
+            set.add(Objects.requireNonNull(item, "Item cannot be null"));
+        }
+        set.trim();
+        return new ItemSetPredicate(set);
+    }
+
+    Set<Item> getItems() {
+        return ReferenceSets.unmodifiable(items);
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        return stack != null && !stack.isEmpty() && items.contains(stack.getItem());
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        return candidates;
+    }
+}
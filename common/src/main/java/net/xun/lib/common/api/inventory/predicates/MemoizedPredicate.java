@@ -0,0 +1,152 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.Object2ByteLinkedOpenCustomHashMap;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.registries.TagBitsetCache;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Predicate caching the results of an expensive delegate per item and component map.
+ * <p>
+ * Results are kept in a bounded LRU table keyed by item and components, so re-testing an identical
+ * stack costs one hash lookup. <strong>The stack count is not part of the key</strong>: the delegate
+ * must not depend on the count, and must be free of side effects. Empty stacks are never cached.
+ * The table is cleared when tags reload, so tag-based delegates stay correct.
+ * <p>
+ * Thread-safe; the delegate runs outside the table lock.
+ *
+ * @see InventoryPredicate#memoized(InventoryPredicate, int)
+ */
+public final class MemoizedPredicate implements InventoryPredicate {
+
+    private static final byte MISSING = -1;
+
+    private final InventoryPredicate delegate;
+    private final int maxEntries;
+    private final Object2ByteLinkedOpenCustomHashMap<ItemStack> results;
+    private int tagGeneration;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    MemoizedPredicate(InventoryPredicate delegate, int maxEntries) {
+        this.delegate = Objects.requireNonNull(delegate, "Predicate cannot be null");
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be ≥1");
+
+        this.maxEntries = maxEntries;
+        this.results = new Object2ByteLinkedOpenCustomHashMap<>(Math.min(maxEntries, 1024), ItemComponentsStrategy.INSTANCE);
+        this.results.defaultReturnValue(MISSING);
+        this.tagGeneration = TagBitsetCache.getGeneration();
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return delegate.test(stack);
+
+        synchronized (results) {
+            int generation = TagBitsetCache.getGeneration();
+            if (generation != tagGeneration) {
+                results.clear();
+                tagGeneration = generation;
+            }
+
+            byte cached = results.getAndMoveToLast(stack);
+            if (cached != MISSING) {
+                hits++;
+                return cached == 1;
+            }
+            misses++;
+        }
+
+        boolean result = delegate.test(stack);
+
+        synchronized (results) {
+            byte value = result ? (byte) 1 : (byte) 0;
+            if (results.containsKey(stack)) {
+                // Stored by another thread meanwhile, only refresh its position
+                results.putAndMoveToLast(stack, value);
+            } else {
+                results.putAndMoveToLast(stack.copyWithCount(1), value);
+                if (results.size() > maxEntries) {
+                    results.removeFirstByte();
+                    evictions++;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        return delegate.candidates();
+    }
+
+    // ======================== METRICS ======================== //
+
+    /**
+     * @return Number of results answered from the table
+     */
+    public long getHitCount() {
+        synchronized (results) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return Number of delegate evaluations caused by table misses
+     */
+    public long getMissCount() {
+        synchronized (results) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return Number of entries evicted to respect the size bound
+     */
+    public long getEvictionCount() {
+        synchronized (results) {
+            return evictions;
+        }
+    }
+
+    /**
+     * @return Number of cached results
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * Discards all cached results, e.g. after the delegate's inputs changed.
+     */
+    public void invalidate() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * Hashes and compares stacks by item and components, ignoring the count. Null-safe.
+     */
+    private enum ItemComponentsStrategy implements Hash.Strategy<ItemStack> {
+        INSTANCE;
+
+        @Override
+        public int hashCode(@Nullable ItemStack stack) {
+            return stack == null ? 0 : ItemStack.hashItemAndComponents(stack);
+        }
+
+        @Override
+        public boolean equals(@Nullable ItemStack a, @Nullable ItemStack b) {
+            if (a == b) return true;
+            if (a == null || b == null) return false;
+            return ItemStack.isSameItemSameComponents(a, b);
+        }
+    }
+}
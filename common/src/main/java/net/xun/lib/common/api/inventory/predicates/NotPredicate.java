@@ -0,0 +1,27 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Objects;
+
+/**
+ * Negation. Double negations collapse to the original predicate.
+ */
+final class NotPredicate implements InventoryPredicate {
+
+    final InventoryPredicate term;
+
+    private NotPredicate(InventoryPredicate term) {
+        this.term = term;
+    }
+
+    static InventoryPredicate of(InventoryPredicate predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return predicate instanceof NotPredicate not ? not.term : new NotPredicate(predicate);
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        return !term.test(stack);
+    }
+}
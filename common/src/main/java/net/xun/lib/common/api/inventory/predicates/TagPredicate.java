@@ -0,0 +1,43 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.registries.TagBitsetCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Matches non-empty stacks whose item is in a tag, through the {@link TagBitsetCache}.
+ * Candidates are cached until the next tag reload.
+ */
+final class TagPredicate implements InventoryPredicate {
+
+    private final TagKey<Item> tag;
+    private volatile CachedCandidates cached;
+
+    TagPredicate(TagKey<Item> tag) {
+        this.tag = Objects.requireNonNull(tag, "Tag cannot be null");
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        return stack != null && !stack.isEmpty() && TagBitsetCache.ITEMS.contains(tag, stack.getItem());
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        int generation = TagBitsetCache.getGeneration();
+        CachedCandidates current = cached;
+        if (current == null || current.generation != generation) {
+            List<Item> items = new ArrayList<>();
+            TagBitsetCache.ITEMS.forEachMember(tag, items::add);
+            cached = current = new CachedCandidates(generation, ItemCandidates.of(items));
+        }
+        return current.candidates;
+    }
+
+    private record CachedCandidates(int generation, ItemCandidates candidates) {}
+}
@@ -0,0 +1,45 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Matches non-empty stacks whose item is an instance of a class. Candidates are collected
+ * from the item registry and collected again if items were registered since, so a request
+ * made before the registry froze doesn't miss items added later.
+ */
+final class TypePredicate implements InventoryPredicate {
+
+    private final Class<? extends Item> itemType;
+    private volatile CachedCandidates cached;
+
+    TypePredicate(Class<? extends Item> itemType) {
+        this.itemType = Objects.requireNonNull(itemType, "Item type class cannot be null");
+    }
+
+    @Override
+    public boolean test(ItemStack stack) {
+        return itemType.isInstance(stack.getItem());
+    }
+
+    @Override
+    public ItemCandidates candidates() {
+        int registered = BuiltInRegistries.ITEM.size();
+        CachedCandidates current = cached;
+        if (current == null || current.registered != registered) {
+            List<Item> items = new ArrayList<>();
+            for (Item item : BuiltInRegistries.ITEM) {
+                if (itemType.isInstance(item)) items.add(item);
+            }
+            cached = current = new CachedCandidates(registered, ItemCandidates.of(items));
+        }
+        return current.candidates;
+    }
+
+    private record CachedCandidates(int registered, ItemCandidates candidates) {}
+}
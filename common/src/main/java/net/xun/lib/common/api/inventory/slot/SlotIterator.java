@@ -1,9 +1,14 @@
 package net.xun.lib.common.api.inventory.slot;
 
-import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
-public class SlotIterator implements Iterator<Integer> {
+/**
+ * Primitive iterator over a contiguous slot sequence, either ascending or descending.
+ * <p>
+ * Use {@link #nextInt()} to avoid boxing; {@link #next()} is kept for {@code Iterator<Integer>} callers.
+ */
+public class SlotIterator implements PrimitiveIterator.OfInt {
 
     private int current;
     private final int end;
@@ -25,11 +30,16 @@ public class SlotIterator implements Iterator<Integer> {
     }
 
     @Override
-    public Integer next() {
+    public int nextInt() {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
         current += step;
         return current;
     }
+
+    @Override
+    public Integer next() {
+        return nextInt();
+    }
 }
@@ -3,19 +3,37 @@ package net.xun.lib.common.api.inventory.slot;
 import net.minecraft.world.Container;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 import java.util.function.IntSupplier;
 import java.util.stream.IntStream;
 
 /**
  * Flexible slot range that can adapt to different container sizes.
+ * <p>
+ * For hot loops prefer the primitive accessors {@link #getSafeStart(Container)} /
+ * {@link #getSafeEnd(Container)} or {@link #forEachSlot(Container, IntConsumer)},
+ * which never box slot indices.
  */
 public class SlotRange {
     private final IntSupplier startSupplier;
     private final IntSupplier endSupplier;
 
+    /**
+     * Creates a range from suppliers evaluated lazily, each time the range is resolved against a container.
+     * <p>
+     * Bounds are clamped to the container size and swapped when inverted, so slots are always
+     * visited in ascending order.
+     *
+     * @param startSupplier Supplies the starting slot (inclusive)
+     * @param endSupplier Supplies the ending slot (exclusive)
+     *
+     * @throws NullPointerException if either supplier is null
+     */
     public SlotRange(IntSupplier startSupplier, IntSupplier endSupplier) {
-        this.startSupplier = startSupplier;
-        this.endSupplier = endSupplier;
+        this.startSupplier = Objects.requireNonNull(startSupplier, "Start supplier cannot be null");
+        this.endSupplier = Objects.requireNonNull(endSupplier, "End supplier cannot be null");
     }
 
     public int getStart() {
@@ -52,31 +70,14 @@ public class SlotRange {
      * Checks if a slot is within this range for a specific container.
      */
     public boolean contains(int slot, Container container) {
-        final int containerSize = container.getContainerSize();
-        final int safeStart = Math.min(startSupplier.getAsInt(), containerSize);
-        final int safeEnd = Math.min(endSupplier.getAsInt(), containerSize);
-        return slot >= safeStart && slot < safeEnd;
+        return slot >= getSafeStart(container) && slot < getSafeEnd(container);
     }
 
     /**
      * Gets slots as a stream adjusted for container size.
      */
     public IntStream stream(Container container) {
-        final int containerSize = container.getContainerSize();
-        int rawStart = startSupplier.getAsInt();
-        int rawEnd = endSupplier.getAsInt();
-
-        int safeStart = Math.min(rawStart, containerSize);
-        int safeEnd = Math.min(rawEnd, containerSize);
-
-        // Handle inverted ranges
-        if (safeStart > safeEnd) {
-            int temp = safeStart;
-            safeStart = safeEnd;
-            safeEnd = temp;
-        }
-
-        return IntStream.range(safeStart, safeEnd);
+        return IntStream.range(getSafeStart(container), getSafeEnd(container));
     }
 
     /**
@@ -95,6 +96,51 @@ public class SlotRange {
         );
     }
 
+    /**
+     * Gets the first slot of this range, clamped to the container size. Inverted ranges are swapped.
+     *
+     * @param container Target inventory container
+     * @return First slot (inclusive)
+     */
+    public int getSafeStart(Container container) {
+        final int containerSize = container.getContainerSize();
+        return Math.min(clamp(startSupplier.getAsInt(), containerSize), clamp(endSupplier.getAsInt(), containerSize));
+    }
+
+    /**
+     * Gets the end of this range, clamped to the container size. Inverted ranges are swapped.
+     *
+     * @param container Target inventory container
+     * @return End slot (exclusive)
+     */
+    public int getSafeEnd(Container container) {
+        final int containerSize = container.getContainerSize();
+        return Math.max(clamp(startSupplier.getAsInt(), containerSize), clamp(endSupplier.getAsInt(), containerSize));
+    }
+
+    /**
+     * Gets a primitive iterator over the slots adjusted for container size.
+     *
+     * @param container Target inventory container
+     * @return Iterator yielding unboxed slot indices
+     */
+    public PrimitiveIterator.OfInt iterator(Container container) {
+        return new SlotIterator(getSafeStart(container), getSafeEnd(container));
+    }
+
+    /**
+     * Visits every slot adjusted for container size, in ascending order, without boxing.
+     *
+     * @param container Target inventory container
+     * @param action Slot visitor
+     */
+    public void forEachSlot(Container container, IntConsumer action) {
+        final int end = getSafeEnd(container);
+        for (int slot = getSafeStart(container); slot < end; slot++) {
+            action.accept(slot);
+        }
+    }
+
     /**
      * Gets slots as an iterable sequence adjusted for container size.
      * <p>
@@ -104,13 +150,13 @@ public class SlotRange {
      * @return Iterable slot sequence respecting container boundaries
      */
     public Iterable<Integer> getSlots(Container container) {
-        final int containerSize = container.getContainerSize();
-        final int rawStart = startSupplier.getAsInt();
-        final int rawEnd = endSupplier.getAsInt();
-
-        int safeStart = Math.max(0, Math.min(rawStart, containerSize));
-        int safeEnd = Math.max(0, Math.min(rawEnd, containerSize));
+        final int safeStart = getSafeStart(container);
+        final int safeEnd = getSafeEnd(container);
 
         return () -> new SlotIterator(safeStart, safeEnd);
     }
+
+    private static int clamp(int slot, int containerSize) {
+        return Math.max(0, Math.min(slot, containerSize));
+    }
 }
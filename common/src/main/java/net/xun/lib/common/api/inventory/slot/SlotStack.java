@@ -0,0 +1,14 @@
+package net.xun.lib.common.api.inventory.slot;
+
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * A slot index paired with the live stack stored in it.
+ * <p>
+ * The stack is the container's own instance, not a copy, and must be treated as read-only.
+ *
+ * @param slot Slot index
+ * @param stack Live, non-empty stack in the slot
+ * @see net.xun.lib.common.api.util.InventoryUtils#streamMatching
+ */
+public record SlotStack(int slot, ItemStack stack) {}
@@ -0,0 +1,23 @@
+package net.xun.lib.common.api.inventory.slot;
+
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Callback receiving a slot index and the live stack stored in it.
+ * <p>
+ * The stack is the container's own instance, not a copy: it must be treated as read-only
+ * and must not be retained after the call returns.
+ *
+ * @see net.xun.lib.common.api.util.InventoryUtils#forEachMatching
+ */
+@FunctionalInterface
+public interface SlotStackVisitor {
+
+    /**
+     * Visits a slot.
+     *
+     * @param slot Slot index
+     * @param stack Live, non-empty stack in the slot (read-only)
+     */
+    void visit(int slot, ItemStack stack);
+}
@@ -0,0 +1,222 @@
+package net.xun.lib.common.api.inventory.tracking;
+
+import net.minecraft.world.Container;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * Records modifications of a single container: a monotonically increasing modification
+ * counter, a dirty-slot bitset and a small cache of query results.
+ * <p>
+ * Slot-level changes ({@code setItem}, {@code removeItem}) mark the slot dirty. A bare
+ * {@code setChanged()} outside a {@linkplain #enterReportedChange() reported change} means stacks
+ * were modified in place, so every slot is considered dirty. Both bump the modification counter,
+ * which invalidates all cached query results.
+ * <p>
+ * Cached results are only correct while every modification is reported, i.e. code that
+ * grows or shrinks a stack obtained from {@code getItem} must call {@code setChanged()}
+ * afterwards, as the {@link Container} contract requires.
+ * <p>
+ * The result cache is a fixed-size table with one entry per hash bucket, so lookups and stores
+ * never allocate. Subjects are compared by identity: only queries reusing the same predicate
+ * instance, e.g. one kept in a static field, hit the cache.
+ * <p>
+ * Not thread-safe, intended for server thread use.
+ *
+ * @see TrackedContainer
+ */
+public class ContainerTracker {
+
+    /** Returned by {@link #getCachedResult} when no valid result is cached */
+    public static final int NO_RESULT = Integer.MIN_VALUE;
+
+    /** Number of cache buckets, a power of two */
+    private static final int CACHE_SIZE = 32;
+
+    /**
+     * Kinds of memoized query results.
+     */
+    public enum QueryKind {
+        /** Total count of matching items */
+        COUNT,
+        /** Lower bound of the count of matching items, from a scan that stopped early */
+        MIN_COUNT,
+        /** First matching slot, or -1 */
+        FIRST_SLOT,
+        /** Number of empty slots, cached without a subject */
+        EMPTY_SLOTS
+    }
+
+    private final BitSet dirtySlots = new BitSet();
+    private boolean allDirty = true;
+    private int reportedDepth;
+    private long modCount;
+
+    private final QueryKind[] cachedKinds = new QueryKind[CACHE_SIZE];
+    private final Object[] cachedSubjects = new Object[CACHE_SIZE];
+    private final int[] cachedStarts = new int[CACHE_SIZE];
+    private final int[] cachedEnds = new int[CACHE_SIZE];
+    private final int[] cachedResults = new int[CACHE_SIZE];
+    private final long[] cachedStamps = new long[CACHE_SIZE];
+
+    /**
+     * Gets a container's tracker if it has one.
+     *
+     * @param container Any container
+     * @return The tracker, or null if the container is not a {@link TrackedContainer}
+     */
+    @Nullable
+    public static ContainerTracker of(Container container) {
+        return container instanceof TrackedContainer tracked ? tracked.getContainerTracker() : null;
+    }
+
+    // ======================== CHANGE NOTIFICATIONS ======================== //
+
+    /**
+     * Records that a single slot's stack was replaced or modified.
+     *
+     * @param slot The changed slot
+     */
+    public void onSlotChanged(int slot) {
+        if (slot >= 0) dirtySlots.set(slot);
+        modCount++;
+    }
+
+    /**
+     * Records a general content change, typically from {@code setChanged()}.
+     * Outside a reported change, all slots are marked dirty.
+     */
+    public void onContentsChanged() {
+        if (reportedDepth == 0) allDirty = true;
+        modCount++;
+    }
+
+    /**
+     * Starts a write whose slot changes are all reported through {@link #onSlotChanged(int)},
+     * such as {@code setItem} firing its own {@code setChanged()}. Content changes reported until
+     * the matching {@link #exitReportedChange()} don't mark every slot dirty.
+     */
+    public void enterReportedChange() {
+        reportedDepth++;
+    }
+
+    /**
+     * Ends a write started with {@link #enterReportedChange()}.
+     */
+    public void exitReportedChange() {
+        if (reportedDepth > 0) reportedDepth--;
+    }
+
+    // ======================== STATE ======================== //
+
+    /**
+     * @return Counter incremented on every reported modification
+     */
+    public long getModificationCount() {
+        return modCount;
+    }
+
+    /**
+     * Checks whether a slot changed since the last {@link #clearDirty()}.
+     *
+     * @param slot Slot to check
+     * @return True if the slot may have changed
+     */
+    public boolean isSlotDirty(int slot) {
+        return allDirty || dirtySlots.get(slot);
+    }
+
+    /**
+     * @return True if an unspecific change was reported, so that every slot must be considered dirty
+     */
+    public boolean isAllDirty() {
+        return allDirty;
+    }
+
+    /**
+     * Gets a copy of the dirty slots recorded since the last {@link #clearDirty()}.
+     * Check {@link #isAllDirty()} first, in which case the bitset is incomplete.
+     *
+     * @return Copy of the dirty-slot bitset
+     */
+    public BitSet getDirtySlots() {
+        return (BitSet) dirtySlots.clone();
+    }
+
+    /**
+     * Resets the dirty-slot state. The modification counter is not affected.
+     */
+    public void clearDirty() {
+        dirtySlots.clear();
+        allDirty = false;
+    }
+
+    // ======================== QUERY CACHE ======================== //
+
+    /**
+     * Gets a memoized query result, valid for the current modification count.
+     *
+     * @param kind Query kind
+     * @param subject Queried predicate or item, compared by identity
+     * @param start First slot of the queried range (inclusive)
+     * @param end Last slot of the queried range (exclusive)
+     * @return The cached result, or {@link #NO_RESULT}
+     */
+    public int getCachedResult(QueryKind kind, Object subject, int start, int end) {
+        int bucket = bucketOf(kind, subject, start, end);
+        if (cachedStamps[bucket] != modCount || cachedKinds[bucket] != kind || cachedSubjects[bucket] != subject
+                || cachedStarts[bucket] != start || cachedEnds[bucket] != end) {
+            return NO_RESULT;
+        }
+        return cachedResults[bucket];
+    }
+
+    /**
+     * Gets a memoized result of a query that only depends on the slot range, like {@link QueryKind#EMPTY_SLOTS}.
+     *
+     * @param kind Query kind
+     * @param start First slot of the queried range (inclusive)
+     * @param end Last slot of the queried range (exclusive)
+     * @return The cached result, or {@link #NO_RESULT}
+     */
+    public int getCachedResult(QueryKind kind, int start, int end) {
+        return getCachedResult(kind, null, start, end);
+    }
+
+    /**
+     * Memoizes a query result until the next modification, replacing the entry sharing its bucket.
+     *
+     * @param kind Query kind
+     * @param subject Queried predicate or item, compared by identity
+     * @param start First slot of the queried range (inclusive)
+     * @param end Last slot of the queried range (exclusive)
+     * @param result Result to cache
+     */
+    public void cacheResult(QueryKind kind, Object subject, int start, int end, int result) {
+        int bucket = bucketOf(kind, subject, start, end);
+        cachedKinds[bucket] = kind;
+        cachedSubjects[bucket] = subject;
+        cachedStarts[bucket] = start;
+        cachedEnds[bucket] = end;
+        cachedResults[bucket] = result;
+        cachedStamps[bucket] = modCount;
+    }
+
+    /**
+     * Memoizes the result of a query that only depends on the slot range, like {@link QueryKind#EMPTY_SLOTS}.
+     *
+     * @param kind Query kind
+     * @param start First slot of the queried range (inclusive)
+     * @param end Last slot of the queried range (exclusive)
+     * @param result Result to cache
+     */
+    public void cacheResult(QueryKind kind, int start, int end, int result) {
+        cacheResult(kind, null, start, end, result);
+    }
+
+    private static int bucketOf(QueryKind kind, @Nullable Object subject, int start, int end) {
+        int hash = ((System.identityHashCode(subject) * 31 + kind.ordinal()) * 31 + start) * 31 + end;
+        return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package net.xun.lib.common.api.inventory.tracking;
+
+import net.minecraft.world.Container;
+
+/**
+ * Container that reports its modifications to a {@link ContainerTracker}.
+ * <p>
+ * {@link net.minecraft.world.SimpleContainer} and the player {@link net.minecraft.world.entity.player.Inventory}
+ * implement this interface through XunLib mixins. Predicate queries on tracked containers are memoized
+ * until the next reported modification, so stacks grown, shrunk or edited in place must be followed by
+ * {@code setChanged()}. Other containers can opt in by implementing it and forwarding their changes:
+ *
+ * <pre>{@code
+ * public class MachineBlockEntity extends BaseContainerBlockEntity implements TrackedContainer {
+ *     private final ContainerTracker tracker = new ContainerTracker();
+ *
+ *     @Override
+ *     public ContainerTracker getContainerTracker() {
+ *         return tracker;
+ *     }
+ *
+ *     @Override
+ *     public void setItem(int slot, ItemStack stack) {
+ *         tracker.onSlotChanged(slot);
+ *         // The setChanged() fired by super.setItem is covered by onSlotChanged
+ *         tracker.enterReportedChange();
+ *         try {
+ *             super.setItem(slot, stack);
+ *         } finally {
+ *             tracker.exitReportedChange();
+ *         }
+ *     }
+ *
+ *     @Override
+ *     public void setChanged() {
+ *         super.setChanged();
+ *         tracker.onContentsChanged();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see ContainerTracker
+ */
+public interface TrackedContainer extends Container {
+
+    /**
+     * Gets the tracker recording this container's modifications.
+     *
+     * @return The tracker, never null
+     */
+    ContainerTracker getContainerTracker();
+}
@@ -1,5 +1,7 @@
 package net.xun.lib.common.api.item.fuzzy;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
 import net.minecraft.core.component.DataComponentType;
 import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
@@ -8,7 +10,6 @@ import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Predicate;
 
 /**
  * Configuration container for {@link FuzzyMatcher} settings, defining comparison rules
@@ -62,7 +63,8 @@ public class FuzzyConfig {
     boolean ignoreDurability = false;
     boolean ignoreEnchantments = false;
     CountMode countMode = CountMode.EXACT;
-    Predicate<DataComponentType<?>> componentFilter = c -> true;
+    FilterMode componentFilterMode = FilterMode.BLACKLIST;
+    Set<DataComponentType<?>> filteredComponents = Set.of();
     TagKey<Item> requiredTag = null;
     List<InventoryPredicate> predicates = new ArrayList<>();
 
@@ -113,10 +115,8 @@ public class FuzzyConfig {
      */
     public FuzzyConfig withComponentFilter(FilterMode mode, Set<DataComponentType<?>> components) {
         FuzzyConfig copy = copy();
-        copy.componentFilter =
-                mode == FilterMode.WHITELIST
-                ? components::contains
-                : c -> !components.contains(c);
+        copy.componentFilterMode = mode;
+        copy.filteredComponents = ReferenceSets.unmodifiable(new ReferenceOpenHashSet<>(components));
         return copy;
     }
 
@@ -174,7 +174,8 @@ public class FuzzyConfig {
         copy.ignoreDurability = this.ignoreDurability;
         copy.ignoreEnchantments = this.ignoreEnchantments;
         copy.countMode = this.countMode;
-        copy.componentFilter = this.componentFilter;
+        copy.componentFilterMode = this.componentFilterMode;
+        copy.filteredComponents = this.filteredComponents;
         copy.requiredTag = this.requiredTag;
         copy.predicates = new ArrayList<>(this.predicates);
         return copy;
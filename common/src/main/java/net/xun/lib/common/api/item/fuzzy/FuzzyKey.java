@@ -0,0 +1,80 @@
+package net.xun.lib.common.api.item.fuzzy;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Normalized hash key of an item stack under a {@link FuzzyMatcher}.
+ * <p>
+ * Holds only the features the matcher compares, so stacks considered equal by
+ * {@link FuzzyMatcher#matches(net.minecraft.world.item.ItemStack, net.minecraft.world.item.ItemStack)}
+ * produce equal keys. This turns grouping, counting and lookup of stacks into plain
+ * hash map operations:
+ *
+ * <pre>{@code
+ * Object2IntOpenHashMap<FuzzyKey> totals = new Object2IntOpenHashMap<>();
+ * for (ItemStack stack : stacks) {
+ *     totals.addTo(matcher.keyOf(stack), stack.getCount());
+ * }
+ * }</pre>
+ *
+ * Keys are immutable, but only meaningful when compared with keys of the same matcher.
+ *
+ * @see FuzzyMatcher#keyOf(net.minecraft.world.item.ItemStack)
+ */
+public final class FuzzyKey {
+
+    /** Key of every empty stack */
+    static final FuzzyKey EMPTY = new FuzzyKey(null, 0, 0, null, null, true);
+
+    private final Object core;
+    private final int count;
+    private final int damage;
+    private final Object enchantments;
+    private final Object[] components;
+    private final boolean passesRules;
+    private final int hash;
+
+    FuzzyKey(@Nullable Object core, int count, int damage, @Nullable Object enchantments,
+             @Nullable Object[] components, boolean passesRules) {
+        this.core = core;
+        this.count = count;
+        this.damage = damage;
+        this.enchantments = enchantments;
+        this.components = components;
+        this.passesRules = passesRules;
+
+        int h = Objects.hashCode(core);
+        h = 31 * h + count;
+        h = 31 * h + damage;
+        h = 31 * h + Objects.hashCode(enchantments);
+        h = 31 * h + Arrays.hashCode(components);
+        this.hash = 31 * h + (passesRules ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FuzzyKey other)) return false;
+        return hash == other.hash
+                && count == other.count
+                && damage == other.damage
+                && passesRules == other.passesRules
+                && Objects.equals(core, other.core)
+                && Objects.equals(enchantments, other.enchantments)
+                && Arrays.equals(components, other.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "FuzzyKey{core=" + core + ", count=" + count + ", damage=" + damage
+                + ", enchantments=" + enchantments + ", components=" + Arrays.toString(components) + "}";
+    }
+}
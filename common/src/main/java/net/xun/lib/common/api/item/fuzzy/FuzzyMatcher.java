@@ -1,8 +1,23 @@
 package net.xun.lib.common.api.item.fuzzy;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.component.DataComponentMap;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.xun.lib.common.api.exceptions.InvalidMatcherConfigurationException;
 import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.predicates.ItemCandidates;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.registries.TagBitsetCache;
+import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -22,6 +37,7 @@ import java.util.*;
  *   <li>Count comparison modes (exact, at-least, ignore)</li>
  *   <li>Custom validation rules via {@link InventoryPredicate}</li>
  *   <li>Empty item handling</li>
+ *   <li>Hash keys consistent with matching via {@link #keyOf(ItemStack)}</li>
  * </ul>
  *
  * <h2>Preconfigured Matchers</h2>
@@ -56,7 +72,7 @@ public class FuzzyMatcher {
             new FuzzyConfig()
                     .withIgnoreDurability(true)
                     .withIgnoreEnchantments(true)
-                    .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of())
+                    .withComponentFilter(FuzzyConfig.FilterMode.WHITELIST, Set.of())
     );
 
     /**
@@ -68,7 +84,7 @@ public class FuzzyMatcher {
                     .withIgnoreDurability(true)
                     .withIgnoreEnchantments(true)
                     .withCountMode(FuzzyConfig.CountMode.IGNORE)
-                    .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of())
+                    .withComponentFilter(FuzzyConfig.FilterMode.WHITELIST, Set.of())
     );
 
     /**
@@ -84,83 +100,508 @@ public class FuzzyMatcher {
     public static final FuzzyMatcher STRICT = new FuzzyMatcher(new FuzzyConfig());
 
     private final FuzzyConfig config;
+    /** Compared component types in whitelist mode, null in blacklist mode */
+    private final DataComponentType<?>[] componentTypes;
+    /** Component types excluded from the comparison in blacklist mode */
+    private final Set<DataComponentType<?>> skippedComponents;
+    private final Stage[] stages;
 
+    /**
+     * Creates a matcher, validating and compiling the configuration once.
+     *
+     * @param config Matching rules
+     * @throws InvalidMatcherConfigurationException if the configuration contains conflicting rules:
+     * <ul>
+     *   <li>Custom rules combined with tag requirements</li>
+     *   <li>Custom rules used with attribute ignoring</li>
+     * </ul>
+     * @throws NullPointerException if config is null
+     */
     public FuzzyMatcher(FuzzyConfig config) {
-        this.config = config;
+        this.config = Objects.requireNonNull(config, "Config cannot be null").copy();
+        validateConfiguration();
+
+        if (this.config.componentFilterMode == FuzzyConfig.FilterMode.WHITELIST) {
+            this.componentTypes = this.config.filteredComponents.stream()
+                    .filter(type -> type != DataComponents.DAMAGE && type != DataComponents.ENCHANTMENTS)
+                    .toArray(DataComponentType<?>[]::new);
+            this.skippedComponents = Set.of();
+        } else {
+            ReferenceOpenHashSet<DataComponentType<?>> skipped = new ReferenceOpenHashSet<>(this.config.filteredComponents);
+            skipped.add(DataComponents.DAMAGE);
+            skipped.add(DataComponents.ENCHANTMENTS);
+            this.componentTypes = null;
+            this.skippedComponents = skipped;
+        }
+        this.stages = compileStages();
     }
 
     /**
      * Tests if two item stacks match according to the configured rules.
      *
-     * <p>Execution order:
+     * <p>Execution order, skipping stages the configuration disables:
      * <ol>
      *   <li>Empty item check (both must be empty or both non-empty)</li>
      *   <li>Core item type/tag verification</li>
+     *   <li>Count comparison using configured mode</li>
      *   <li>Durability comparison (if enabled)</li>
      *   <li>Enchantment comparison (if enabled)</li>
      *   <li>Data component filtering</li>
-     *   <li>Count comparison using configured mode</li>
      *   <li>Custom predicate validation</li>
      * </ol>
      *
      * @param a First item stack to compare
      * @param b Second item stack to compare
      * @return true if items match all configured rules, false otherwise
-     * @throws InvalidMatcherConfigurationException if matcher contains conflicting rules:
-     * <ul>
-     *   <li>Custom rules combined with tag requirements</li>
-     *   <li>Custom rules used with attribute ignoring</li>
-     * </ul>
      * @throws NullPointerException if either input stack is null
      */
     public boolean matches(ItemStack a, ItemStack b) {
-        validateConfiguration();
-
         if (a.isEmpty() != b.isEmpty()) return false;
         if (a.isEmpty()) return true;
 
-        return compareCore(a, b)
-                && compareDurability(a, b)
-                && compareEnchantments(a, b)
-                && compareComponents(a, b)
-                && compareCount(a, b)
-                && validateCustomRules(a, b);
+        for (Stage stage : stages) {
+            if (!stage.test(a, b)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Binds the matcher to a fixed template, for filters that test many stacks against it.
+     * <p>
+     * The template's compared features (item or tag membership, count, damage, enchantments,
+     * whitelisted components and custom rule results) are read once here instead of on every test.
+     * The returned predicate is equivalent to {@code matches(stack, template)}, the same argument order
+     * as {@link #matchAll}: in {@link FuzzyConfig.CountMode#AT_LEAST} mode it accepts stacks holding at least
+     * the template's count. It reports its candidate items, so it can be passed to {@link InventoryUtils}
+     * and answered from item indexes on indexed containers.
+     *
+     * @param template Template stack (will be copied)
+     * @return Predicate matching stacks against the template
+     * @throws NullPointerException if template is null
+     */
+    public InventoryPredicate bind(ItemStack template) {
+        Objects.requireNonNull(template, "Template cannot be null");
+        if (template.isEmpty()) return InventoryPredicate.IS_EMPTY;
+        return new BoundPredicate(template.copy());
+    }
+
+    /**
+     * Assigns a distinct container slot to every template in one call, as needed for
+     * recipe-style checks.
+     * <p>
+     * Container stacks are bucketed by item in a single pass, so each template is only compared
+     * against stacks that can match it, using {@code matches(slotStack, template)}. The assignment
+     * then uses every slot at most once and, if possible, covers every template, even when greedy
+     * first-fit picking would fail. Empty templates need no slot.
+     *
+     * <pre>{@code
+     * SlotAssignment assignment = matcher.matchAll(pattern, container, null);
+     * if (assignment.isComplete()) {
+     *     int slot = assignment.getSlot(0);
+     * }
+     * }</pre>
+     *
+     * @param templates Template stacks (will not be modified)
+     * @param container Container to search
+     * @param slots Optional slot range restriction
+     * @return The chosen slots, covering as many templates as possible
+     * @throws NullPointerException if templates, a template or the container is null
+     */
+    public SlotAssignment matchAll(List<ItemStack> templates, Container container, @Nullable SlotRange slots) {
+        Objects.requireNonNull(templates, "Templates cannot be null");
+        InventoryUtils.validateContainer(container, true);
+
+        int start = InventoryOps.getRangeStart(container, slots);
+        int end = InventoryOps.getRangeEnd(container, slots);
+        int size = Math.max(0, end - start);
+
+        // Bucket the slots by item, or collect the tagged slots when matching by tag
+        TagKey<Item> requiredTag = config.requiredTag;
+        ItemStack[] stacks = new ItemStack[size];
+        Reference2ObjectOpenHashMap<Item, IntArrayList> buckets = new Reference2ObjectOpenHashMap<>();
+        IntArrayList tagged = new IntArrayList();
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = container.getItem(start + i);
+            stacks[i] = stack;
+            if (stack.isEmpty()) continue;
+
+            if (requiredTag == null) {
+                buckets.computeIfAbsent(stack.getItem(), k -> new IntArrayList(4)).add(i);
+            } else if (TagBitsetCache.ITEMS.contains(requiredTag, stack.getItem())) {
+                tagged.add(i);
+            }
+        }
+
+        int[][] candidates = new int[templates.size()][];
+        int required = 0;
+        for (int t = 0; t < candidates.length; t++) {
+            ItemStack template = Objects.requireNonNull(templates.get(t), "Template cannot be null");
+            if (template.isEmpty()) continue;
+            required++;
+
+            IntArrayList bucket = requiredTag == null ? buckets.get(template.getItem()) : tagged;
+            IntArrayList matching = new IntArrayList();
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    int index = bucket.getInt(i);
+                    if (matches(stacks[index], template)) matching.add(index);
+                }
+            }
+            candidates[t] = matching.toIntArray();
+        }
+
+        // Most constrained templates first, then augmenting paths for the rest
+        Integer[] order = new Integer[candidates.length];
+        for (int t = 0; t < order.length; t++) order[t] = t;
+        Arrays.sort(order, Comparator.comparingInt(t -> candidates[t] == null ? 0 : candidates[t].length));
+
+        int[] owner = new int[size];
+        Arrays.fill(owner, SlotAssignment.UNASSIGNED);
+        int[] visited = new int[size];
+        int matched = 0;
+        for (int t : order) {
+            int[] options = candidates[t];
+            if (options == null || options.length == 0) continue;
+            if (augment(t, candidates, owner, visited, t + 1)) matched++;
+        }
+
+        int[] assigned = new int[candidates.length];
+        Arrays.fill(assigned, SlotAssignment.UNASSIGNED);
+        for (int i = 0; i < size; i++) {
+            if (owner[i] != SlotAssignment.UNASSIGNED) assigned[owner[i]] = start + i;
+        }
+        return new SlotAssignment(assigned, matched, required);
+    }
+
+    /**
+     * Tries to assign a slot to the template, moving other templates to alternative slots as needed.
+     *
+     * @param stamp Marks the slots visited during this search, unique per call from {@link #matchAll}
+     */
+    private static boolean augment(int template, int[][] candidates, int[] owner, int[] visited, int stamp) {
+        for (int slot : candidates[template]) {
+            if (visited[slot] == stamp) continue;
+            visited[slot] = stamp;
+
+            if (owner[slot] == SlotAssignment.UNASSIGNED
+                    || augment(owner[slot], candidates, owner, visited, stamp)) {
+                owner[slot] = template;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the hash key of a stack, consistent with {@link #matches(ItemStack, ItemStack)}:
+     * matching stacks always produce equal keys, so stacks can be grouped or deduplicated
+     * through a hash map instead of comparing every pair.
+     * <p>
+     * The key only holds the compared features. Count is part of it in {@link FuzzyConfig.CountMode#EXACT}
+     * mode only, since {@link FuzzyConfig.CountMode#AT_LEAST} is not symmetric. Stacks outside the
+     * required tag, or failing a custom rule, never match anything but still receive a key, grouped by item.
+     *
+     * @param stack Stack to compute the key for
+     * @return The normalized key
+     * @throws NullPointerException if stack is null
+     */
+    public FuzzyKey keyOf(ItemStack stack) {
+        Objects.requireNonNull(stack, "ItemStack cannot be null");
+        if (stack.isEmpty()) return FuzzyKey.EMPTY;
+
+        Item item = stack.getItem();
+        TagKey<Item> requiredTag = config.requiredTag;
+        Object core = requiredTag != null && TagBitsetCache.ITEMS.contains(requiredTag, item) ? requiredTag : item;
+
+        boolean passesRules = true;
+        for (InventoryPredicate rule : config.predicates) {
+            if (!rule.test(stack)) {
+                passesRules = false;
+                break;
+            }
+        }
+
+        return new FuzzyKey(
+                core,
+                config.countMode == FuzzyConfig.CountMode.EXACT ? stack.getCount() : 0,
+                config.ignoreDurability ? 0 : stack.getDamageValue(),
+                config.ignoreEnchantments ? null : stack.getEnchantments(),
+                componentFeatures(stack),
+                passesRules
+        );
+    }
+
+    /**
+     * Extracts the compared component values of a stack.
+     * Without a required tag, only components differing from the item's prototype are kept.
+     */
+    @Nullable
+    private Object[] componentFeatures(ItemStack stack) {
+        if (componentTypes != null) {
+            if (componentTypes.length == 0) return null;
+
+            Object[] values = new Object[componentTypes.length];
+            for (int i = 0; i < componentTypes.length; i++) {
+                values[i] = stack.get(componentTypes[i]);
+            }
+            return values;
+        }
+
+        // Stacks of different items may match by tag, so then every present component counts
+        boolean byTag = config.requiredTag != null;
+        if (!byTag && stack.isComponentsPatchEmpty()) return null;
+
+        DataComponentMap prototype = stack.getPrototype();
+        Reference2ObjectOpenHashMap<DataComponentType<?>, Object> values = new Reference2ObjectOpenHashMap<>();
+        if (byTag) {
+            for (DataComponentType<?> type : prototype.keySet()) {
+                putPresent(values, stack, type);
+            }
+        }
+        if (!stack.isComponentsPatchEmpty()) {
+            for (Map.Entry<DataComponentType<?>, Optional<?>> entry : stack.getComponentsPatch().entrySet()) {
+                DataComponentType<?> type = entry.getKey();
+                if (byTag) {
+                    putPresent(values, stack, type);
+                } else if (!skippedComponents.contains(type)) {
+                    Object value = stack.get(type);
+                    if (!Objects.equals(value, prototype.get(type))) values.put(type, value);
+                }
+            }
+        }
+        return values.isEmpty() ? null : new Object[] { values };
     }
 
-    private boolean compareCore(ItemStack a, ItemStack b) {
-        if (config.requiredTag != null) {
-            return a.is(config.requiredTag) && b.is(config.requiredTag);
+    private void putPresent(Map<DataComponentType<?>, Object> values, ItemStack stack, DataComponentType<?> type) {
+        if (skippedComponents.contains(type)) return;
+
+        Object value = stack.get(type);
+        if (value != null) values.put(type, value);
+    }
+
+    // ======================== BOUND PREDICATE ======================== //
+
+    /**
+     * {@link #matches(ItemStack, ItemStack)} with a frozen, non-empty second argument.
+     */
+    private final class BoundPredicate implements InventoryPredicate {
+        private final ItemStack template;
+        private final Item item;
+        private final boolean viable;
+        private final int count;
+        private final int damage;
+        private final Object enchantments;
+        private final Object[] componentValues;
+        /** Non-skipped components patched on the template and their values, in blacklist mode */
+        private final DataComponentType<?>[] patchedTypes;
+        private final Object[] patchedValues;
+        private final InventoryPredicate tagPredicate;
+        private final ItemCandidates candidates;
+
+        BoundPredicate(ItemStack template) {
+            this.template = template;
+            this.item = template.getItem();
+            this.count = template.getCount();
+            this.damage = template.getDamageValue();
+            this.enchantments = config.ignoreEnchantments ? null : template.getEnchantments();
+            this.tagPredicate = config.requiredTag != null ? InventoryPredicate.matchesTag(config.requiredTag) : null;
+
+            if (componentTypes != null) {
+                this.componentValues = new Object[componentTypes.length];
+                for (int i = 0; i < componentTypes.length; i++) {
+                    componentValues[i] = template.get(componentTypes[i]);
+                }
+                this.patchedTypes = null;
+                this.patchedValues = null;
+            } else {
+                this.componentValues = null;
+                List<DataComponentType<?>> patched = new ArrayList<>();
+                if (!template.isComponentsPatchEmpty()) {
+                    for (Map.Entry<DataComponentType<?>, Optional<?>> entry : template.getComponentsPatch().entrySet()) {
+                        if (!skippedComponents.contains(entry.getKey())) patched.add(entry.getKey());
+                    }
+                }
+                this.patchedTypes = patched.toArray(new DataComponentType<?>[0]);
+                this.patchedValues = new Object[patchedTypes.length];
+                for (int i = 0; i < patchedTypes.length; i++) {
+                    patchedValues[i] = template.get(patchedTypes[i]);
+                }
+            }
+
+            // A template failing a custom rule or outside the required tag matches nothing
+            boolean viable = tagPredicate == null || tagPredicate.test(template);
+            for (InventoryPredicate rule : config.predicates) {
+                viable &= rule.test(template);
+            }
+            this.viable = viable;
+            this.candidates = !viable ? ItemCandidates.NONE : tagPredicate == null ? ItemCandidates.of(List.of(item)) : null;
         }
-        return a.getItem() == b.getItem();
+
+        @Override
+        public boolean test(ItemStack stack) {
+            if (!viable || stack == null || stack.isEmpty()) return false;
+
+            if (tagPredicate != null) {
+                if (!tagPredicate.test(stack)) return false;
+            } else if (stack.getItem() != item) {
+                return false;
+            }
+
+            switch (config.countMode) {
+                case EXACT -> {
+                    if (count != stack.getCount()) return false;
+                }
+                case AT_LEAST -> {
+                    if (stack.getCount() < count) return false;
+                }
+                case IGNORE -> {}
+            }
+
+            if (!config.ignoreDurability && damage != stack.getDamageValue()) return false;
+            if (!config.ignoreEnchantments && !Objects.equals(enchantments, stack.getEnchantments())) return false;
+
+            if (componentValues != null) {
+                for (int i = 0; i < componentValues.length; i++) {
+                    if (!Objects.equals(componentValues[i], stack.get(componentTypes[i]))) return false;
+                }
+            } else if (componentTypes == null && !compareToTemplate(stack)) {
+                return false;
+            }
+
+            for (InventoryPredicate rule : config.predicates) {
+                if (!rule.test(stack)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public ItemCandidates candidates() {
+            return candidates != null ? candidates : tagPredicate.candidates();
+        }
+
+        /**
+         * Blacklist comparison against the template, reading the template's patched components
+         * from the values captured on bind.
+         */
+        private boolean compareToTemplate(ItemStack stack) {
+            for (int i = 0; i < patchedTypes.length; i++) {
+                if (!Objects.equals(stack.get(patchedTypes[i]), patchedValues[i])) return false;
+            }
+            if (stack.getItem() != item && !(compareTypes(stack, template, stack.getPrototype().keySet())
+                    && compareTypes(stack, template, template.getPrototype().keySet()))) {
+                return false;
+            }
+            return comparePatched(stack, template, stack);
+        }
+    }
+
+    // ======================== STAGES ======================== //
+
+    /**
+     * Single comparison step of the compiled pipeline.
+     */
+    @FunctionalInterface
+    private interface Stage {
+        boolean test(ItemStack a, ItemStack b);
     }
 
-    private boolean compareDurability(ItemStack a, ItemStack b) {
-        return config.ignoreDurability || a.getDamageValue() == b.getDamageValue();
+    /**
+     * Builds the stage array, cheapest and most discriminating checks first.
+     */
+    private Stage[] compileStages() {
+        List<Stage> compiled = new ArrayList<>(6);
+
+        TagKey<Item> requiredTag = config.requiredTag;
+        if (requiredTag != null) {
+            compiled.add((a, b) -> TagBitsetCache.ITEMS.contains(requiredTag, a.getItem())
+                    && TagBitsetCache.ITEMS.contains(requiredTag, b.getItem()));
+        } else {
+            compiled.add((a, b) -> a.getItem() == b.getItem());
+        }
+
+        switch (config.countMode) {
+            case EXACT -> compiled.add((a, b) -> a.getCount() == b.getCount());
+            case AT_LEAST -> compiled.add((a, b) -> a.getCount() >= b.getCount());
+            case IGNORE -> {}
+        }
+
+        if (!config.ignoreDurability) {
+            compiled.add((a, b) -> a.getDamageValue() == b.getDamageValue());
+        }
+        if (!config.ignoreEnchantments) {
+            compiled.add((a, b) -> Objects.equals(a.getEnchantments(), b.getEnchantments()));
+        }
+
+        Stage components = compileComponentStage();
+        if (components != null) compiled.add(components);
+
+        if (!config.predicates.isEmpty()) {
+            InventoryPredicate[] rules = config.predicates.toArray(new InventoryPredicate[0]);
+            compiled.add((a, b) -> {
+                for (InventoryPredicate rule : rules) {
+                    if (!rule.test(a) || !rule.test(b)) return false;
+                }
+                return true;
+            });
+        }
+
+        return compiled.toArray(new Stage[0]);
     }
 
-    private boolean compareEnchantments(ItemStack a, ItemStack b) {
-        return config.ignoreEnchantments ||
-                Objects.equals(a.getEnchantments(), b.getEnchantments());
+    /**
+     * Builds the component comparison. Damage and enchantments are left to their own stages,
+     * so that ignoring them is not undone here.
+     *
+     * @return The stage, or null if no component has to be compared
+     */
+    @Nullable
+    private Stage compileComponentStage() {
+        if (componentTypes != null) {
+            DataComponentType<?>[] types = componentTypes;
+            if (types.length == 0) return null;
+
+            return (a, b) -> {
+                for (DataComponentType<?> type : types) {
+                    if (!Objects.equals(a.get(type), b.get(type))) return false;
+                }
+                return true;
+            };
+        }
+
+        return this::compareComponents;
     }
 
+    /**
+     * Compares the non-skipped components that can differ between two stacks: the patched ones on
+     * either side, plus the prototype components if the items differ, which only happens when
+     * matching by tag. Every other component comes from the same prototype on both sides.
+     */
     private boolean compareComponents(ItemStack a, ItemStack b) {
-        return a.getComponents().stream()
-                .filter(entry -> config.componentFilter.test(entry.type()))
-                .allMatch(entry ->
-                        Objects.equals(entry.type(), b.get(entry.type()))
-                );
+        if (a.getItem() != b.getItem()
+                && !(compareTypes(a, b, a.getPrototype().keySet()) && compareTypes(a, b, b.getPrototype().keySet()))) {
+            return false;
+        }
+        return comparePatched(a, b, a) && comparePatched(a, b, b);
     }
 
-    private boolean compareCount(ItemStack a, ItemStack b) {
-        return switch (config.countMode) {
-            case IGNORE -> true;
-            case EXACT -> a.getCount() == b.getCount();
-            case AT_LEAST -> a.getCount() >= b.getCount();
-        };
+    private boolean compareTypes(ItemStack a, ItemStack b, Set<DataComponentType<?>> types) {
+        for (DataComponentType<?> type : types) {
+            if (!skippedComponents.contains(type) && !Objects.equals(a.get(type), b.get(type))) return false;
+        }
+        return true;
     }
 
-    private boolean validateCustomRules(ItemStack a, ItemStack b) {
-        return config.predicates.stream().allMatch(rule -> rule.test(a) && rule.test(b));
+    /**
+     * Compares the components patched on one of the stacks.
+     */
+    private boolean comparePatched(ItemStack a, ItemStack b, ItemStack patched) {
+        if (patched.isComponentsPatchEmpty()) return true;
+
+        for (Map.Entry<DataComponentType<?>, Optional<?>> entry : patched.getComponentsPatch().entrySet()) {
+            DataComponentType<?> type = entry.getKey();
+            if (!skippedComponents.contains(type) && !Objects.equals(a.get(type), b.get(type))) return false;
+        }
+        return true;
     }
 
     private void validateConfiguration() {
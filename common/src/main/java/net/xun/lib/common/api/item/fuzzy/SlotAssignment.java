@@ -0,0 +1,62 @@
+package net.xun.lib.common.api.item.fuzzy;
+
+import java.util.Arrays;
+
+/**
+ * Result of {@link FuzzyMatcher#matchAll}: the container slot chosen for every template.
+ * <p>
+ * Each slot is assigned to at most one template. If not every template could be matched,
+ * the assignment still covers as many templates as possible.
+ */
+public final class SlotAssignment {
+
+    /** Marker for templates without an assigned slot */
+    public static final int UNASSIGNED = -1;
+
+    private final int[] slots;
+    private final int matched;
+    private final int required;
+
+    SlotAssignment(int[] slots, int matched, int required) {
+        this.slots = slots;
+        this.matched = matched;
+        this.required = required;
+    }
+
+    /**
+     * Gets the slot assigned to a template.
+     *
+     * @param templateIndex Index of the template in the list passed to {@link FuzzyMatcher#matchAll}
+     * @return The chosen slot, or {@link #UNASSIGNED} for unmatched and empty templates
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getSlot(int templateIndex) {
+        return slots[templateIndex];
+    }
+
+    /**
+     * @return Copy of the chosen slots, indexed like the templates
+     */
+    public int[] getSlots() {
+        return slots.clone();
+    }
+
+    /**
+     * @return Number of templates that were assigned a slot
+     */
+    public int getMatchedCount() {
+        return matched;
+    }
+
+    /**
+     * @return True if every non-empty template was assigned a slot
+     */
+    public boolean isComplete() {
+        return matched == required;
+    }
+
+    @Override
+    public String toString() {
+        return "SlotAssignment{slots=" + Arrays.toString(slots) + ", complete=" + isComplete() + "}";
+    }
+}
@@ -151,10 +151,17 @@ public class RegistryHolder<R, T extends R> implements Holder<R>, Supplier<T> {
         return predicate.test(key);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Item and block tags are answered from the {@link TagBitsetCache}.
+     */
     @Override
     public boolean is(TagKey<R> tagKey) {
-        return isBound() && holder.is(tagKey);
+        if (!isBound()) return false;
+
+        TagBitsetCache<R> cache = TagBitsetCache.forTag(tagKey);
+        return cache != null ? cache.contains(tagKey, holder.value()) : holder.is(tagKey);
     }
 
     /** {@inheritDoc} */
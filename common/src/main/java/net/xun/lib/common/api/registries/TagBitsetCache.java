@@ -0,0 +1,147 @@
+package net.xun.lib.common.api.registries;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tag membership bitsets over raw registry ids.
+ * <p>
+ * The first query of a tag builds a {@link BitSet} of its members' raw ids, after which membership
+ * tests are a single bit lookup instead of a holder tag set lookup. All bitsets are discarded when
+ * tags reload, which XunLib reports through {@link #invalidateAll()} on both loaders.
+ * <p>
+ * Thread-safe: bitsets are immutable once built and may be queried from worker threads.
+ *
+ * <pre>{@code
+ * boolean isLog = TagBitsetCache.ITEMS.contains(ItemTags.LOGS, stack.getItem());
+ * }</pre>
+ *
+ * @param <T> Registry entry type
+ */
+public final class TagBitsetCache<T> {
+
+    /** Bitsets over {@link BuiltInRegistries#ITEM} */
+    public static final TagBitsetCache<Item> ITEMS = new TagBitsetCache<>(BuiltInRegistries.ITEM);
+    /** Bitsets over {@link BuiltInRegistries#BLOCK} */
+    public static final TagBitsetCache<Block> BLOCKS = new TagBitsetCache<>(BuiltInRegistries.BLOCK);
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private final Registry<T> registry;
+    private final Map<TagKey<T>, Entry> bitsets = new ConcurrentHashMap<>();
+
+    private TagBitsetCache(Registry<T> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the cache covering a tag's registry.
+     *
+     * @param tag Any tag
+     * @return The cache, or null if the tag's registry is not cached
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public static <T> TagBitsetCache<T> forTag(TagKey<T> tag) {
+        if (tag.registry().equals(ITEMS.registry.key())) return (TagBitsetCache<T>) ITEMS;
+        if (tag.registry().equals(BLOCKS.registry.key())) return (TagBitsetCache<T>) BLOCKS;
+        return null;
+    }
+
+    /**
+     * Discards every cached bitset. Called when tags are reloaded or synchronized.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+        ITEMS.bitsets.clear();
+        BLOCKS.bitsets.clear();
+    }
+
+    /**
+     * Gets the current tag generation, incremented by every {@link #invalidateAll()}.
+     * Derived caches can compare it to detect tag reloads.
+     *
+     * @return The generation counter
+     */
+    public static int getGeneration() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Checks whether a registry entry is in a tag.
+     *
+     * @param tag Tag to check
+     * @param value Registry entry
+     * @return True if the entry is a member of the tag
+     * @throws NullPointerException if tag or value is null
+     */
+    public boolean contains(TagKey<T> tag, T value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        int id = registry.getId(value);
+        return id >= 0 && getBitset(tag).get(id);
+    }
+
+    /**
+     * Checks whether a raw registry id is in a tag.
+     *
+     * @param tag Tag to check
+     * @param rawId Raw registry id
+     * @return True if the id belongs to a member of the tag
+     * @throws NullPointerException if tag is null
+     */
+    public boolean contains(TagKey<T> tag, int rawId) {
+        return rawId >= 0 && getBitset(tag).get(rawId);
+    }
+
+    /**
+     * Visits every member of a tag in raw id order.
+     *
+     * @param tag Tag to enumerate
+     * @param action Consumer receiving each member
+     * @throws NullPointerException if tag or action is null
+     */
+    public void forEachMember(TagKey<T> tag, Consumer<T> action) {
+        Objects.requireNonNull(action, "Action cannot be null");
+        BitSet bitset = getBitset(tag);
+        for (int id = bitset.nextSetBit(0); id >= 0; id = bitset.nextSetBit(id + 1)) {
+            T value = registry.byId(id);
+            if (value != null) action.accept(value);
+        }
+    }
+
+    private BitSet getBitset(TagKey<T> tag) {
+        Objects.requireNonNull(tag, "Tag cannot be null");
+        int generation = GENERATION.get();
+
+        Entry entry = bitsets.get(tag);
+        if (entry == null || entry.generation != generation) {
+            // A bitset built while tags reload is tagged with the old generation and rebuilt on next access
+            entry = new Entry(generation, build(tag));
+            bitsets.put(tag, entry);
+        }
+        return entry.bitset;
+    }
+
+    private BitSet build(TagKey<T> tag) {
+        BitSet bitset = new BitSet(registry.size());
+        for (Holder<T> holder : registry.getTagOrEmpty(tag)) {
+            int id = registry.getId(holder.value());
+            if (id >= 0) bitset.set(id);
+        }
+        return bitset;
+    }
+
+    private record Entry(int generation, BitSet bitset) {}
+}
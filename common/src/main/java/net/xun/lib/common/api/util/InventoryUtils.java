@@ -1,21 +1,36 @@
 package net.xun.lib.common.api.util;
 
 import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
 import net.minecraft.world.Container;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.xun.lib.common.api.exceptions.UtilityClassException;
+import net.xun.lib.common.api.inventory.index.ContainerIndex;
+import net.xun.lib.common.api.inventory.index.IndexedContainer;
 import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
 import net.xun.lib.common.api.inventory.InventoryCycleOrder;
-import net.xun.lib.common.api.inventory.slot.SlotIterator;
+import net.xun.lib.common.api.inventory.InventoryView;
+import net.xun.lib.common.api.inventory.ItemHistogram;
 import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.inventory.slot.SlotStack;
+import net.xun.lib.common.api.inventory.slot.SlotStackVisitor;
+import net.xun.lib.common.api.item.fuzzy.FuzzyKey;
+import net.xun.lib.common.api.item.fuzzy.FuzzyMatcher;
+import net.xun.lib.common.api.inventory.tracking.TrackedContainer;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import net.xun.lib.common.internal.inventory.MatchingSlotSpliterator;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Universal inventory utilities for all container types. (sever-side only)
@@ -27,6 +42,12 @@ import java.util.Objects;
  *   <li>Inventory space verification</li>
  *   <li>Item collection with custom predicates</li>
  * </ul>
+ * <p>
+ * Item-keyed lookups are answered from the {@link ContainerIndex} of {@link IndexedContainer}s
+ * instead of scanning every slot, and predicates with finite {@link InventoryPredicate#candidates()
+ * candidates} only visit the slots holding those items. Predicate queries on {@link TrackedContainer}s,
+ * including {@code SimpleContainer} and the player inventory, are memoized until the container's next
+ * reported modification, keyed by predicate identity: reuse predicate instances to benefit, and keep them pure.
  *
  * @see InventoryPredicate Inventory predicates
  * @see ArmorSlotsUtils Armor-specific inventory utils
@@ -54,15 +75,40 @@ public class InventoryUtils {
         Objects.requireNonNull(predicate, "Predicate cannot be null");
         if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
 
-        int count = 0;
-        for (int slot : getSlotIterator(container, slots)) {
-            ItemStack stack = container.getItem(slot);
-            if (!stack.isEmpty() && predicate.test(stack)) {
-                count += stack.getCount();
-                if (count >= minCount) return true;
-            }
-        }
-        return false;
+        return InventoryOps.hasCount(container, predicate, minCount,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
+    }
+
+    /**
+     * Checks if a container contains at least {@code minCount} items of a specific type.
+     *
+     * @param container Any inventory (player, chest, etc.)
+     * @param item Item to count
+     * @param minCount Minimum required items (≥1)
+     * @param slots Optional slot range (null for entire inventory)
+     * @return True if container contains sufficient items, false otherwise
+     * @throws NullPointerException if container or item is null
+     */
+    public static boolean hasItemCount(Container container, Item item, int minCount, @Nullable SlotRange slots) {
+        if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
+        return getItemCount(container, item, slots) >= minCount;
+    }
+
+    /**
+     * Counts the items of a specific type in a container.
+     *
+     * @param container Target inventory
+     * @param item Item to count
+     * @param slots Optional slot range (null for entire inventory)
+     * @return Total number of matching items
+     * @throws NullPointerException if container or item is null
+     */
+    public static int getItemCount(Container container, Item item, @Nullable SlotRange slots) {
+        validateContainer(container);
+        Objects.requireNonNull(item, "Item cannot be null");
+
+        return InventoryOps.countItem(container, item,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
     }
 
     /**
@@ -93,13 +139,25 @@ public class InventoryUtils {
         validateContainer(container);
         Objects.requireNonNull(predicate, "Predicate cannot be null");
 
-        for (int slot : getSlotIterator(container, slots)) {
-            ItemStack stack = container.getItem(slot);
-            if (!stack.isEmpty() && predicate.test(stack)) {
-                return slot;
-            }
-        }
-        return -1;
+        return InventoryOps.findFirst(container, predicate,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
+    }
+
+    /**
+     * Finds the first slot in the container that contains a specific item.
+     *
+     * @param container The container to search
+     * @param item The item to look for
+     * @param slots Optional slot range to restrict search (null for entire container)
+     * @return Slot index of first match, or -1 if none
+     * @throws NullPointerException if container or item is null
+     */
+    public static int findFirstSlot(Container container, Item item, @Nullable SlotRange slots) {
+        validateContainer(container);
+        Objects.requireNonNull(item, "Item cannot be null");
+
+        return InventoryOps.findFirstItem(container, item,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
     }
 
     /**
@@ -131,23 +189,7 @@ public class InventoryUtils {
         Objects.requireNonNull(order, "Removal order cannot be null");
         if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
 
-        List<Integer> slotOrder = order.getSlotOrder(container, slots);
-        int remaining = amount;
-
-        for (int slot : slotOrder) {
-            ItemStack stack = container.getItem(slot);
-            if (stack.isEmpty() || !predicate.test(stack)) continue;
-
-            int remove = Math.min(stack.getCount(), remaining);
-            stack.shrink(remove);
-            remaining -= remove;
-
-            if (stack.isEmpty()) {
-                container.setItem(slot, ItemStack.EMPTY);
-            }
-
-            if (remaining <= 0) break;
-        }
+        InventoryOps.extract(container, predicate, amount, slots, order, null);
     }
 
     /**
@@ -165,24 +207,98 @@ public class InventoryUtils {
 
     /**
      * Attempts to add an item stack to a container.
+     * <p>
+     * Stacks are first merged into existing stacks of the same item and components,
+     * then placed into empty slots.
+     *
      * @param container Target inventory
      * @param stack Item stack to add (will not be modified)
      * @return Remaining items that couldn't be added (empty stack if all were added)
      * @throws NullPointerException if container or stack is null
      */
     public static ItemStack insertItem(Container container, ItemStack stack) {
-        validateContainer(container);
         Objects.requireNonNull(stack, "ItemStack cannot be null");
-        if (stack.isEmpty()) return ItemStack.EMPTY;
+        List<ItemStack> leftovers = insertItems(container, List.of(stack), false);
+        return leftovers.isEmpty() ? ItemStack.EMPTY : leftovers.get(0);
+    }
+
+    /**
+     * Adds several item stacks to a container with a single scan.
+     * <p>
+     * The container is read once to build a merge plan covering all stacks, which is then
+     * applied by touching only the slots that change. Stacks are processed in list order,
+     * each one merging into existing stacks of the same item and components before filling
+     * empty slots, exactly as repeated {@link #insertItem(Container, ItemStack)} calls would.
+     *
+     * @param container Target inventory
+     * @param stacks Item stacks to add (will not be modified)
+     * @param simulate If true, only compute the result without modifying the container
+     * @return Immutable list of leftover stacks that couldn't be added, in input order (empty if all fit)
+     * @throws NullPointerException if container, stacks or any stack is null
+     */
+    public static ImmutableList<ItemStack> insertItems(Container container, List<ItemStack> stacks, boolean simulate) {
+        validateContainer(container);
+        Objects.requireNonNull(stacks, "Stacks cannot be null");
 
-        ItemStack remaining = stack.copy();
+        for (ItemStack stack : stacks) {
+            Objects.requireNonNull(stack, "ItemStack cannot be null");
+        }
+        return InventoryOps.insert(container, stacks, simulate);
+    }
 
-        remaining = tryMergeWithExisting(container, remaining);
-        if (remaining.isEmpty()) return ItemStack.EMPTY;
+    /**
+     * Moves matching items directly from one container into another.
+     * <p>
+     * The source is walked once in the given order and every matching stack is merged into
+     * existing destination stacks of the same item and components, then into empty slots.
+     * No intermediate stacks are created and only slots that actually change are written,
+     * which makes this suitable for pipe and hopper tick loops.
+     *
+     * @param from Source container
+     * @param to Destination container
+     * @param predicate Item matching logic
+     * @param amount Maximum number of items to move (≥1)
+     * @param fromSlots Optional source slot range restriction
+     * @param toSlots Optional destination slot range restriction
+     * @param order Source slot processing order
+     * @return Number of items moved
+     * @throws NullPointerException if any container, predicate or order is null
+     * @throws IllegalArgumentException if both containers are the same instance
+     */
+    public static int transfer(Container from, Container to, InventoryPredicate predicate, int amount,
+                               @Nullable SlotRange fromSlots, @Nullable SlotRange toSlots, InventoryCycleOrder order) {
+        validateContainer(from);
+        validateContainer(to);
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(order, "Removal order cannot be null");
+        if (amount < 1) throw new IllegalArgumentException("Amount must be ≥1");
+        if (from == to) throw new IllegalArgumentException("Source and destination must be different containers");
 
-        remaining = tryFillEmptySlots(container, remaining);
+        return InventoryOps.transfer(from, to, predicate, amount, fromSlots, toSlots, order);
+    }
 
-        return remaining;
+    /**
+     * Merges partial stacks and sorts a container range in a single pass.
+     * <p>
+     * Stacks with the same item and components are merged into as few full stacks as possible,
+     * which are laid out from the start of the range ordered by raw item id, followed by the empty
+     * slots. Only slots whose content changes are written and {@link Container#setChanged()} fires
+     * once, instead of the per-slot updates of repeated extract/insert calls.
+     * <p>
+     * If the result would not fit (overstacked items) or a slot rejects its new stack through
+     * {@link Container#canPlaceItem(int, ItemStack)}, the container is left untouched.
+     *
+     * @param container Target inventory
+     * @param slots Optional slot range restriction
+     * @param comparator Optional order of stacks sharing the same item (e.g. by damage),
+     *                   null to keep their first appearance order
+     * @return Number of slots that changed
+     * @throws NullPointerException if container is null
+     */
+    public static int compact(Container container, @Nullable SlotRange slots, @Nullable Comparator<ItemStack> comparator) {
+        validateContainer(container);
+        return InventoryOps.compact(container,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots), comparator);
     }
 
     /**
@@ -209,91 +325,142 @@ public class InventoryUtils {
     public static ImmutableList<ItemStack> collectMatching(Container container, InventoryPredicate predicate, @Nullable SlotRange slots) {
         validateContainer(container);
         Objects.requireNonNull(predicate, "Predicate cannot be null");
-        List<ItemStack> matches = new ArrayList<>();
-
-        for (int slot : getSlotIterator(container, slots)) {
-            ItemStack stack = container.getItem(slot);
-            if (!stack.isEmpty() && predicate.test(stack)) {
-                matches.add(stack.copy());
-            }
-        }
-        return ImmutableList.copyOf(matches);
+        return InventoryOps.collect(container, predicate,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
     }
 
     /**
-     * Calculates total available space of a container
+     * Visits every stack matching the predicate, without copying.
+     * <p>
+     * Unlike {@link #collectMatching(Container, InventoryPredicate, SlotRange)}, the visitor
+     * receives the container's live stacks, which must be treated as read-only.
      *
-     * @param container Container to check
-     * @return The number of empty slots
-     * @throws NullPointerException if container or stack is null
+     * @param container Container to search
+     * @param predicate Predicate to test items
+     * @param slots Optional slot range restriction
+     * @param visitor Callback receiving each matching slot and its stack
+     * @throws NullPointerException if container, predicate or visitor is null
      */
-    public static int getAvailableSpace(Container container) {
+    public static void forEachMatching(Container container, InventoryPredicate predicate, @Nullable SlotRange slots, SlotStackVisitor visitor) {
         validateContainer(container);
-        int space = 0;
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(visitor, "Visitor cannot be null");
 
-        for (int slot = 0; slot < container.getContainerSize(); slot++) {
-            ItemStack existing = container.getItem(slot);
-            if (existing.isEmpty()) {
-                space += 1;
-            }
-        }
-        return space;
+        InventoryOps.forEachMatching(container, predicate,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots), visitor);
     }
 
-    // ======================== HELPER METHODS ======================== //
+    /**
+     * Creates a lazy stream of the stacks matching the predicate, without copying.
+     * <p>
+     * Slots are read and tested only as the stream is consumed, so short-circuiting operations
+     * such as {@code findFirst} or {@code anyMatch} stop scanning early. The stream may be made
+     * parallel for large containers, provided the container is not modified while it is consumed.
+     * Streamed stacks are live and must be treated as read-only.
+     *
+     * @param container Container to search
+     * @param predicate Predicate to test items
+     * @param slots Optional slot range restriction, resolved when this method is called
+     * @return Sequential stream of matching slots in ascending order
+     * @throws NullPointerException if container or predicate is null
+     */
+    public static Stream<SlotStack> streamMatching(Container container, InventoryPredicate predicate, @Nullable SlotRange slots) {
+        validateContainer(container);
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
 
-    private static Iterable<Integer> getSlotIterator(Container container, @Nullable SlotRange range) {
-        return range != null ? range.getSlots(container) :
-                () -> new SlotIterator(0, container.getContainerSize());
+        return StreamSupport.stream(new MatchingSlotSpliterator(container, predicate,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots)), false);
     }
 
-    private static ItemStack tryMergeWithExisting(Container container, ItemStack stack) {
-        ItemStack remaining = stack.copy();
-
-        for (int slot = 0; slot < container.getContainerSize(); slot++) {
-            ItemStack existing = container.getItem(slot);
-
-            if (ItemStack.isSameItem(existing, remaining)) {
-                int transfer = Math.min(remaining.getCount(), existing.getMaxStackSize() - existing.getCount());
-
-                if (transfer > 0) {
-                    existing.grow(transfer);
-                    remaining.shrink(transfer);
-                    container.setItem(slot, existing);
-
-                    if (remaining.isEmpty()) {
-                        return ItemStack.EMPTY;
-                    }
-                }
-            }
-        }
-
-        return remaining;
+    /**
+     * Counts every item type in a container with a single pass.
+     * <p>
+     * For {@link IndexedContainer}s queried over their full size, the histogram is
+     * built from the index totals without scanning slots.
+     *
+     * @param container Container to count
+     * @param slots Optional slot range restriction
+     * @return Immutable raw item id → count table
+     * @throws NullPointerException if container is null
+     */
+    public static ItemHistogram histogram(Container container, @Nullable SlotRange slots) {
+        validateContainer(container);
+        return InventoryOps.histogram(container,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
     }
 
-    private static ItemStack tryFillEmptySlots(Container container, ItemStack stack) {
-        ItemStack remaining = stack.copy();
-
-        for (int slot = 0; slot < container.getContainerSize(); slot++) {
-            ItemStack existing = container.getItem(slot);
+    /**
+     * Counts the items of a container grouped by {@link FuzzyMatcher#keyOf(ItemStack)}, with a single pass.
+     * <p>
+     * Stacks considered equal by the matcher share a key, so the table answers "how many items like
+     * this one" without comparing every pair. Keys include the stack count in
+     * {@link net.xun.lib.common.api.item.fuzzy.FuzzyConfig.CountMode#EXACT} mode, so matchers ignoring
+     * the count are usually what you want here.
+     *
+     * @param container Container to count
+     * @param matcher Matcher defining which stacks are grouped together
+     * @param slots Optional slot range restriction
+     * @return Unmodifiable key → total item count table
+     * @throws NullPointerException if container or matcher is null
+     */
+    public static Object2IntMap<FuzzyKey> histogram(Container container, FuzzyMatcher matcher, @Nullable SlotRange slots) {
+        validateContainer(container);
+        Objects.requireNonNull(matcher, "Matcher cannot be null");
+        return Object2IntMaps.unmodifiable(InventoryOps.histogram(container, matcher,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots)));
+    }
 
-            if (existing.isEmpty()) {
-                int transfer = Math.min(remaining.getCount(), remaining.getMaxStackSize());
-                ItemStack newStack = remaining.copy();
-                newStack.setCount(transfer);
+    /**
+     * Calculates how many items of the stack's kind a container can still accept.
+     * <p>
+     * Counts the room left in stacks with the same item and components, plus a full stack
+     * for every empty slot accepting the item. Unlike simulating {@link #insertItem(Container, ItemStack)},
+     * nothing is copied. {@link IndexedContainer}s report a full container in O(1).
+     *
+     * @param container Target inventory
+     * @param stack Stack describing the item and components (its count is ignored)
+     * @param slots Optional slot range restriction
+     * @return Number of items that fit, 0 if the container is full or the stack is empty
+     * @throws NullPointerException if container or stack is null
+     */
+    public static int capacityFor(Container container, ItemStack stack, @Nullable SlotRange slots) {
+        validateContainer(container);
+        Objects.requireNonNull(stack, "ItemStack cannot be null");
 
-                container.setItem(slot, newStack);
-                remaining.shrink(transfer);
+        return InventoryOps.capacityFor(container, stack,
+                InventoryOps.getRangeStart(container, slots), InventoryOps.getRangeEnd(container, slots));
+    }
 
-                if (remaining.isEmpty()) {
-                    return ItemStack.EMPTY;
-                }
-            }
-        }
+    /**
+     * Calculates total available space of a container
+     *
+     * @param container Container to check
+     * @return The number of empty slots
+     * @throws NullPointerException if container or stack is null
+     */
+    public static int getAvailableSpace(Container container) {
+        validateContainer(container);
+        return InventoryOps.countEmpty(container, 0, container.getContainerSize());
+    }
 
-        return remaining;
+    /**
+     * Creates a validated handle for repeated operations on the same container.
+     * <p>
+     * The view validates the container once and only re-validates when its size, modification
+     * count or game tick changes, instead of on every call.
+     *
+     * @param container Container to bind
+     * @return New view bound to the container
+     * @throws NullPointerException if container is null
+     * @throws IllegalStateException if the container is client-side
+     * @throws IllegalArgumentException for invalid container states
+     */
+    public static InventoryView view(Container container) {
+        return new InventoryView(container);
     }
 
+    // ======================== HELPER METHODS ======================== //
+
     /**
      * Validates container accessibility and integrity.
      *
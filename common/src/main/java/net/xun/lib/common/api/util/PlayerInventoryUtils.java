@@ -11,9 +11,11 @@ import net.xun.lib.common.api.exceptions.UtilityClassException;
 import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
 import net.xun.lib.common.api.inventory.InventoryCycleOrder;
 import net.xun.lib.common.api.inventory.PlayerInventorySection;
+import net.xun.lib.common.internal.inventory.PlayerInventoryOps;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.Objects;
 
 /**
@@ -26,6 +28,10 @@ import java.util.Objects;
  *   <li>Swapping or clearing items in hands</li>
  * </ul>
  *
+ * <p>
+ * Queries read the player's inventory compartments directly instead of going through
+ * {@link Container#getItem(int)} for every slot.
+ *
  * @see InventoryUtils General inventory utilities
  */
 public class PlayerInventoryUtils {
@@ -72,7 +78,12 @@ public class PlayerInventoryUtils {
      * @throws NullPointerException if container or predicate is null
      */
     public static boolean hasItemCount(Player player, InventoryPredicate predicate, int minCount, PlayerInventorySection section) {
-        return InventoryUtils.hasItemCount(player.getInventory(), predicate, minCount, section.getSlotRange());
+        validatePlayer(player);
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(section, "Section cannot be null");
+        if (minCount < 1) throw new IllegalArgumentException("minCount must be ≥1");
+
+        return PlayerInventoryOps.hasCount(player.getInventory(), predicate, minCount, section.getStart(), section.getEnd());
     }
 
     /**
@@ -85,7 +96,7 @@ public class PlayerInventoryUtils {
      * @throws NullPointerException if any parameter is null
      */
     public static boolean hasItem(Player player, InventoryPredicate predicate, PlayerInventorySection section) {
-        return InventoryUtils.hasItem(player.getInventory(), predicate, section.getSlotRange());
+        return hasItemCount(player, predicate, 1, section);
     }
 
     // ======================== SLOT SEARCHING ======================== //
@@ -100,7 +111,11 @@ public class PlayerInventoryUtils {
      * @throws NullPointerException if any parameter is null
      */
     public static int findFirstMatchingSlot(Player player, InventoryPredicate predicate, PlayerInventorySection section) {
-        return InventoryUtils.findFirstMatchingSlot(player.getInventory(), predicate, section.getSlotRange());
+        validatePlayer(player);
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        Objects.requireNonNull(section, "Section cannot be null");
+
+        return PlayerInventoryOps.findFirst(player.getInventory(), predicate, section.getStart(), section.getEnd());
     }
 
     /**
@@ -257,7 +272,41 @@ public class PlayerInventoryUtils {
      */
     public static ImmutableList<ItemStack> collectMatching(Container container, InventoryPredicate predicate, PlayerInventorySection section) {
         Objects.requireNonNull(section, "Section cannot be null");
-        return InventoryUtils.collectMatching(container, predicate, section.getSlotRange());
+        if (!(container instanceof Inventory inventory)) {
+            return InventoryUtils.collectMatching(container, predicate, section.getSlotRange());
+        }
+
+        InventoryUtils.validateContainer(inventory);
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return PlayerInventoryOps.collect(inventory, predicate, section.getStart(), section.getEnd());
+    }
+
+    /**
+     * Merges and sorts the player's main inventory, leaving the hotbar, armor and offhand untouched.
+     *
+     * @param player Target player
+     * @param comparator Optional order of stacks sharing the same item, null for first appearance
+     * @return Number of slots that changed
+     * @throws NullPointerException if player is null
+     * @see InventoryUtils#compact(Container, net.xun.lib.common.api.inventory.slot.SlotRange, Comparator)
+     */
+    public static int compactMainInventory(Player player, @Nullable Comparator<ItemStack> comparator) {
+        return compact(player, PlayerInventorySection.MAIN_INVENTORY, comparator);
+    }
+
+    /**
+     * Merges and sorts a single inventory section.
+     *
+     * @param player Target player
+     * @param section Section to compact
+     * @param comparator Optional order of stacks sharing the same item, null for first appearance
+     * @return Number of slots that changed
+     * @throws NullPointerException if player or section is null
+     */
+    public static int compact(Player player, PlayerInventorySection section, @Nullable Comparator<ItemStack> comparator) {
+        validatePlayer(player);
+        Objects.requireNonNull(section, "Section cannot be null");
+        return InventoryUtils.compact(player.getInventory(), section.getSlotRange(), comparator);
     }
 
     /**
@@ -268,7 +317,8 @@ public class PlayerInventoryUtils {
      * @throws NullPointerException if container or stack is null
      */
     public static int getAvailableSpace(Player player) {
-        return InventoryUtils.getAvailableSpace(player.getInventory());
+        validatePlayer(player);
+        return PlayerInventoryOps.countEmpty(player.getInventory());
     }
 
     // ======================== HELPER METHODS ======================== //
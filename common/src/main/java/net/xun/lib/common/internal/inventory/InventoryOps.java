@@ -0,0 +1,735 @@
+package net.xun.lib.common.internal.inventory;
+
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.exceptions.UtilityClassException;
+import net.xun.lib.common.api.inventory.InventoryCycleOrder;
+import net.xun.lib.common.api.inventory.ItemHistogram;
+import net.xun.lib.common.api.inventory.index.ContainerIndex;
+import net.xun.lib.common.api.inventory.index.IndexedContainer;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.predicates.ItemCandidates;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.inventory.slot.SlotStackVisitor;
+import net.xun.lib.common.api.inventory.tracking.ContainerTracker;
+import net.xun.lib.common.api.inventory.tracking.TrackedContainer;
+import net.xun.lib.common.api.item.fuzzy.FuzzyKey;
+import net.xun.lib.common.api.item.fuzzy.FuzzyMatcher;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Unchecked inventory algorithms shared by {@link net.xun.lib.common.api.util.InventoryUtils}
+ * and the batched inventory APIs.
+ * <p>
+ * Callers are responsible for validating the container and arguments beforehand.
+ */
+@ApiStatus.Internal
+public final class InventoryOps {
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private InventoryOps() throws UtilityClassException {
+        throw new UtilityClassException();
+    }
+
+    /**
+     * Removes up to {@code amount} matching items following the given slot order.
+     *
+     * @param removed Optional sink receiving copies of the removed items
+     * @return Number of items removed
+     */
+    public static int extract(Container container, InventoryPredicate predicate, int amount, @Nullable SlotRange slots,
+                              InventoryCycleOrder order, @Nullable List<ItemStack> removed) {
+        int remaining = amount;
+
+        for (int slot : order.getSlotTable(container, slots)) {
+            ItemStack stack = container.getItem(slot);
+            if (stack.isEmpty() || !predicate.test(stack)) continue;
+
+            int remove = Math.min(stack.getCount(), remaining);
+            stack = getForModification(container, slot);
+            if (removed != null) removed.add(stack.copyWithCount(remove));
+            stack.shrink(remove);
+            remaining -= remove;
+
+            if (stack.isEmpty()) {
+                container.setItem(slot, ItemStack.EMPTY);
+            } else {
+                onSlotModified(container, slot);
+            }
+
+            if (remaining <= 0) break;
+        }
+        return amount - remaining;
+    }
+
+    /**
+     * Plans and optionally applies the insertion of several stacks with a single container scan.
+     * {@link IndexedContainer}s without room for any of the items are rejected from the index, without a scan.
+     *
+     * @return Leftover stacks that couldn't be inserted, in input order
+     */
+    public static ImmutableList<ItemStack> insert(Container container, List<ItemStack> stacks, boolean simulate) {
+        final int size = container.getContainerSize();
+        ReferenceOpenHashSet<Item> wanted = new ReferenceOpenHashSet<>();
+        for (ItemStack stack : stacks) {
+            if (!stack.isEmpty()) wanted.add(stack.getItem());
+        }
+        if (wanted.isEmpty()) return ImmutableList.of();
+
+        if (container instanceof IndexedContainer indexed && !hasRoomForAny(indexed.getContainerIndex(), wanted)) {
+            ImmutableList.Builder<ItemStack> leftovers = ImmutableList.builder();
+            for (ItemStack stack : stacks) {
+                if (!stack.isEmpty()) leftovers.add(stack.copy());
+            }
+            return leftovers.build();
+        }
+
+        // Single scan: remember every slot's stack, non-full stacks of wanted items and empty slots
+        ItemStack[] current = new ItemStack[size];
+        Reference2ObjectOpenHashMap<Item, IntArrayList> partials = new Reference2ObjectOpenHashMap<>();
+        IntArrayList empties = new IntArrayList();
+
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack existing = container.getItem(slot);
+            current[slot] = existing;
+
+            if (existing.isEmpty()) {
+                empties.add(slot);
+            } else if (wanted.contains(existing.getItem()) && existing.getCount() < container.getMaxStackSize(existing)) {
+                partials.computeIfAbsent(existing.getItem(), k -> new IntArrayList()).add(slot);
+            }
+        }
+
+        // Plan: grow existing stacks by added[slot], or place a new stack into an empty slot
+        int[] added = new int[size];
+        boolean[] placed = new boolean[size];
+        boolean[] changed = new boolean[size];
+        IntArrayList touched = new IntArrayList();
+        int emptyCursor = 0;
+        ImmutableList.Builder<ItemStack> leftovers = ImmutableList.builder();
+
+        for (ItemStack stack : stacks) {
+            if (stack.isEmpty()) continue;
+            int remaining = stack.getCount();
+
+            IntArrayList candidates = partials.get(stack.getItem());
+            if (candidates != null) {
+                for (int i = 0; i < candidates.size() && remaining > 0; i++) {
+                    int slot = candidates.getInt(i);
+                    ItemStack existing = current[slot];
+                    if (!ItemStack.isSameItemSameComponents(existing, stack)) continue;
+
+                    int room = container.getMaxStackSize(existing) - existing.getCount() - added[slot];
+                    int transfer = Math.min(remaining, room);
+                    if (transfer > 0) {
+                        if (!changed[slot]) {
+                            changed[slot] = true;
+                            touched.add(slot);
+                        }
+                        added[slot] += transfer;
+                        remaining -= transfer;
+                    }
+                }
+            }
+
+            // Slots rejecting this stack stay available for later stacks
+            for (int i = emptyCursor; i < empties.size() && remaining > 0; i++) {
+                int slot = empties.getInt(i);
+                if (placed[slot] || !container.canPlaceItem(slot, stack)) continue;
+
+                int transfer = Math.min(remaining, container.getMaxStackSize(stack));
+                current[slot] = stack.copyWithCount(transfer);
+                placed[slot] = true;
+                changed[slot] = true;
+                touched.add(slot);
+                remaining -= transfer;
+
+                // A partially filled new stack can take items from later stacks of the same kind
+                if (transfer < container.getMaxStackSize(stack)) {
+                    IntArrayList list = partials.computeIfAbsent(stack.getItem(), k -> new IntArrayList());
+                    int index = Arrays.binarySearch(list.elements(), 0, list.size(), slot);
+                    list.add(-index - 1, slot);
+                }
+            }
+
+            while (emptyCursor < empties.size() && placed[empties.getInt(emptyCursor)]) {
+                emptyCursor++;
+            }
+
+            if (remaining > 0) {
+                leftovers.add(stack.copyWithCount(remaining));
+            }
+        }
+
+        if (!simulate) {
+            for (int i = 0; i < touched.size(); i++) {
+                int slot = touched.getInt(i);
+                // Newly placed stacks already carry their count; existing stacks grow by the planned amount
+                ItemStack target = placed[slot] ? current[slot] : getForModification(container, slot);
+                if (added[slot] > 0) target.grow(added[slot]);
+                container.setItem(slot, target);
+            }
+        }
+
+        return leftovers.build();
+    }
+
+    private static boolean hasRoomForAny(ContainerIndex index, ReferenceOpenHashSet<Item> items) {
+        for (Item item : items) {
+            if (index.hasRoomFor(item)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves up to {@code amount} matching items from one container into another in a single pass
+     * over the source. The destination range is scanned once, lazily, on the first match.
+     *
+     * @return Number of items moved
+     */
+    public static int transfer(Container from, Container to, InventoryPredicate predicate, int amount,
+                               @Nullable SlotRange fromSlots, @Nullable SlotRange toSlots, InventoryCycleOrder order) {
+        int remaining = amount;
+        IntArrayList partials = null;
+        IntArrayList empties = null;
+        int emptyCursor = 0;
+
+        for (int slot : order.getSlotTable(from, fromSlots)) {
+            ItemStack source = from.getItem(slot);
+            if (source.isEmpty() || !predicate.test(source)) continue;
+
+            if (partials == null) {
+                partials = new IntArrayList();
+                empties = new IntArrayList();
+                final int end = getRangeEnd(to, toSlots);
+                for (int target = getRangeStart(to, toSlots); target < end; target++) {
+                    ItemStack existing = to.getItem(target);
+                    if (existing.isEmpty()) {
+                        empties.add(target);
+                    } else if (existing.getCount() < to.getMaxStackSize(existing)) {
+                        partials.add(target);
+                    }
+                }
+            }
+
+            int budget = Math.min(source.getCount(), remaining);
+            int moved = 0;
+
+            for (int i = 0; i < partials.size() && moved < budget; i++) {
+                int target = partials.getInt(i);
+                ItemStack existing = to.getItem(target);
+                if (!ItemStack.isSameItemSameComponents(existing, source)) continue;
+
+                int transfer = Math.min(budget - moved, to.getMaxStackSize(existing) - existing.getCount());
+                if (transfer <= 0) continue;
+
+                existing = getForModification(to, target);
+                existing.grow(transfer);
+                to.setItem(target, existing);
+                moved += transfer;
+            }
+
+            // Slots rejecting this stack stay available for later source stacks
+            for (int i = emptyCursor; i < empties.size() && moved < budget; i++) {
+                int target = empties.getInt(i);
+                if (!to.getItem(target).isEmpty() || !to.canPlaceItem(target, source)) continue;
+
+                int transfer = Math.min(budget - moved, to.getMaxStackSize(source));
+                to.setItem(target, source.copyWithCount(transfer));
+                moved += transfer;
+
+                if (transfer < to.getMaxStackSize(source)) {
+                    int index = Arrays.binarySearch(partials.elements(), 0, partials.size(), target);
+                    partials.add(-index - 1, target);
+                }
+            }
+
+            while (emptyCursor < empties.size() && !to.getItem(empties.getInt(emptyCursor)).isEmpty()) {
+                emptyCursor++;
+            }
+
+            if (moved > 0) {
+                source = getForModification(from, slot);
+                source.shrink(moved);
+                if (source.isEmpty()) {
+                    from.setItem(slot, ItemStack.EMPTY);
+                } else {
+                    onSlotModified(from, slot);
+                }
+                remaining -= moved;
+            }
+
+            // Destination has neither room left for this stack nor empty slots
+            if (remaining <= 0 || (moved < budget && emptyCursor >= empties.size() && partials.isEmpty())) break;
+        }
+
+        int total = amount - remaining;
+        if (total > 0) {
+            setChangedReported(from);
+            setChangedReported(to);
+        }
+        return total;
+    }
+
+    /**
+     * Merges equal stacks in {@code [start, end)} and lays them out sorted by raw item id, writing
+     * only slots whose content changes. Aborts without writing if the layout does not fit or a
+     * target slot rejects its stack.
+     *
+     * @param comparator Optional order of stacks sharing the same item, first appearance otherwise
+     * @return Number of slots written
+     */
+    public static int compact(Container container, int start, int end, @Nullable Comparator<ItemStack> comparator) {
+        // Merge: one group per distinct item + components, in order of first appearance
+        Reference2ObjectOpenHashMap<Item, List<MergeGroup>> groupsByItem = new Reference2ObjectOpenHashMap<>();
+        List<MergeGroup> groups = new ArrayList<>();
+        int minId = Integer.MAX_VALUE;
+        int maxId = Integer.MIN_VALUE;
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (stack.isEmpty()) continue;
+
+            List<MergeGroup> candidates = groupsByItem.computeIfAbsent(stack.getItem(), k -> new ArrayList<>(1));
+            MergeGroup group = null;
+            for (MergeGroup candidate : candidates) {
+                if (ItemStack.isSameItemSameComponents(candidate.prototype, stack)) {
+                    group = candidate;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new MergeGroup(stack, Item.getId(stack.getItem()));
+                candidates.add(group);
+                groups.add(group);
+                minId = Math.min(minId, group.rawId);
+                maxId = Math.max(maxId, group.rawId);
+            }
+            group.total += stack.getCount();
+        }
+        if (groups.isEmpty()) return 0;
+
+        // Counting sort by raw item id; the comparator only orders groups within the same id
+        int[] offsets = new int[maxId - minId + 2];
+        for (MergeGroup group : groups) offsets[group.rawId - minId + 1]++;
+        for (int i = 1; i < offsets.length; i++) offsets[i] += offsets[i - 1];
+
+        MergeGroup[] sorted = new MergeGroup[groups.size()];
+        for (MergeGroup group : groups) sorted[offsets[group.rawId - minId]++] = group;
+
+        if (comparator != null) {
+            int bucketStart = 0;
+            for (int i = 1; i <= sorted.length; i++) {
+                if (i == sorted.length || sorted[i].rawId != sorted[bucketStart].rawId) {
+                    if (i - bucketStart > 1) {
+                        Arrays.sort(sorted, bucketStart, i, (a, b) -> comparator.compare(a.prototype, b.prototype));
+                    }
+                    bucketStart = i;
+                }
+            }
+        }
+
+        // Lay out full stacks, then check placement before touching the container
+        ItemStack[] planned = new ItemStack[end - start];
+        int cursor = 0;
+        for (MergeGroup group : sorted) {
+            int limit = Math.max(1, container.getMaxStackSize(group.prototype));
+            long remaining = group.total;
+            while (remaining > 0) {
+                if (cursor >= planned.length) return 0;
+                int count = (int) Math.min(remaining, limit);
+                planned[cursor] = group.prototype.copyWithCount(count);
+                if (!container.canPlaceItem(start + cursor, planned[cursor])) return 0;
+                remaining -= count;
+                cursor++;
+            }
+        }
+
+        int written = 0;
+        for (int i = 0; i < planned.length; i++) {
+            int slot = start + i;
+            ItemStack target = planned[i] != null ? planned[i] : ItemStack.EMPTY;
+            if (!ItemStack.matches(container.getItem(slot), target)) {
+                container.setItem(slot, target);
+                written++;
+            }
+        }
+        if (written > 0) setChangedReported(container);
+        return written;
+    }
+
+    /**
+     * Checks for at least {@code minCount} matching items in {@code [start, end)}, stopping as soon
+     * as the count is reached. {@link TrackedContainer}s memoize the count, or a lower bound when the
+     * scan stopped early, and {@link IndexedContainer}s only visit candidate slots.
+     */
+    public static boolean hasCount(Container container, InventoryPredicate predicate, int minCount, int start, int end) {
+        ContainerTracker tracker = ContainerTracker.of(container);
+        if (tracker != null) {
+            int cached = tracker.getCachedResult(ContainerTracker.QueryKind.COUNT, predicate, start, end);
+            if (cached != ContainerTracker.NO_RESULT) return cached >= minCount;
+
+            int lowerBound = tracker.getCachedResult(ContainerTracker.QueryKind.MIN_COUNT, predicate, start, end);
+            if (lowerBound != ContainerTracker.NO_RESULT && lowerBound >= minCount) return true;
+        }
+
+        int count = countUpTo(container, predicate, minCount, start, end);
+        if (tracker != null) {
+            ContainerTracker.QueryKind kind = count >= minCount ? ContainerTracker.QueryKind.MIN_COUNT : ContainerTracker.QueryKind.COUNT;
+            tracker.cacheResult(kind, predicate, start, end, count);
+        }
+        return count >= minCount;
+    }
+
+    /**
+     * Counts items of a type in {@code [start, end)}, using the index of {@link IndexedContainer}s.
+     */
+    public static int countItem(Container container, Item item, int start, int end) {
+        if (container instanceof IndexedContainer indexed) {
+            return indexed.getContainerIndex().getCount(item, start, end);
+        }
+
+        int count = 0;
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && stack.is(item)) {
+                count += stack.getCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first slot holding an item in {@code [start, end)}, using the index of {@link IndexedContainer}s.
+     *
+     * @return Slot index, or -1 if none
+     */
+    public static int findFirstItem(Container container, Item item, int start, int end) {
+        if (container instanceof IndexedContainer indexed) {
+            return indexed.getContainerIndex().findFirstSlot(item, start, end);
+        }
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && stack.is(item)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects copies of the matching stacks in {@code [start, end)}.
+     */
+    public static ImmutableList<ItemStack> collect(Container container, InventoryPredicate predicate, int start, int end) {
+        ImmutableList.Builder<ItemStack> matches = ImmutableList.builder();
+        forEachMatching(container, predicate, start, end, (slot, stack) -> matches.add(stack.copy()));
+        return matches.build();
+    }
+
+    /**
+     * Passes every matching live stack in {@code [start, end)} to the visitor, without copying.
+     */
+    public static void forEachMatching(Container container, InventoryPredicate predicate, int start, int end, SlotStackVisitor visitor) {
+        int[] candidates = candidateSlots(container, predicate, start, end);
+        if (candidates != null) {
+            for (int slot : candidates) {
+                ItemStack stack = container.getItem(slot);
+                if (!stack.isEmpty() && predicate.test(stack)) {
+                    visitor.visit(slot, stack);
+                }
+            }
+            return;
+        }
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                visitor.visit(slot, stack);
+            }
+        }
+    }
+
+    /**
+     * Counts every item type in {@code [start, end)}, using the index totals when the full
+     * range of an {@link IndexedContainer} is requested.
+     */
+    public static ItemHistogram histogram(Container container, int start, int end) {
+        ItemHistogram.Builder builder = new ItemHistogram.Builder();
+
+        if (container instanceof IndexedContainer indexed && start == 0 && end == container.getContainerSize()) {
+            indexed.getContainerIndex().forEachTotal(builder::add);
+            return builder.build();
+        }
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty()) {
+                builder.add(stack.getItem(), stack.getCount());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Counts items in {@code [start, end)} grouped by their {@link FuzzyMatcher#keyOf fuzzy key}, so stacks
+     * the matcher considers equivalent share one total.
+     */
+    public static Object2IntOpenHashMap<FuzzyKey> histogram(Container container, FuzzyMatcher matcher, int start, int end) {
+        Object2IntOpenHashMap<FuzzyKey> counts = new Object2IntOpenHashMap<>();
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty()) {
+                counts.addTo(matcher.keyOf(stack), stack.getCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts matching items in {@code [start, end)}, memoized for {@link TrackedContainer}s.
+     */
+    public static int count(Container container, InventoryPredicate predicate, int start, int end) {
+        ContainerTracker tracker = ContainerTracker.of(container);
+        if (tracker != null) {
+            int cached = tracker.getCachedResult(ContainerTracker.QueryKind.COUNT, predicate, start, end);
+            if (cached != ContainerTracker.NO_RESULT) return cached;
+        }
+
+        int count = countUpTo(container, predicate, Integer.MAX_VALUE, start, end);
+        if (tracker != null) tracker.cacheResult(ContainerTracker.QueryKind.COUNT, predicate, start, end, count);
+        return count;
+    }
+
+    /**
+     * Counts matching items in {@code [start, end)}, stopping once {@code limit} is reached.
+     * {@link IndexedContainer}s only visit candidate slots.
+     *
+     * @return The exact count if below {@code limit}, otherwise a count of at least {@code limit}
+     */
+    private static int countUpTo(Container container, InventoryPredicate predicate, int limit, int start, int end) {
+        int count = 0;
+        int[] candidates = candidateSlots(container, predicate, start, end);
+        if (candidates != null) {
+            for (int slot : candidates) {
+                ItemStack stack = container.getItem(slot);
+                if (!stack.isEmpty() && predicate.test(stack)) {
+                    count += stack.getCount();
+                    if (count >= limit) return count;
+                }
+            }
+            return count;
+        }
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                count += stack.getCount();
+                if (count >= limit) return count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first matching slot in {@code [start, end)}, memoized for {@link TrackedContainer}s.
+     *
+     * @return Slot index, or -1 if none
+     */
+    public static int findFirst(Container container, InventoryPredicate predicate, int start, int end) {
+        ContainerTracker tracker = ContainerTracker.of(container);
+        if (tracker != null) {
+            int cached = tracker.getCachedResult(ContainerTracker.QueryKind.FIRST_SLOT, predicate, start, end);
+            if (cached != ContainerTracker.NO_RESULT) return cached;
+        }
+
+        int found = -1;
+        int[] candidates = candidateSlots(container, predicate, start, end);
+        if (candidates != null) {
+            for (int slot : candidates) {
+                ItemStack stack = container.getItem(slot);
+                if (!stack.isEmpty() && predicate.test(stack)) {
+                    found = slot;
+                    break;
+                }
+            }
+        } else {
+            for (int slot = start; slot < end; slot++) {
+                ItemStack stack = container.getItem(slot);
+                if (!stack.isEmpty() && predicate.test(stack)) {
+                    found = slot;
+                    break;
+                }
+            }
+        }
+
+        if (tracker != null) tracker.cacheResult(ContainerTracker.QueryKind.FIRST_SLOT, predicate, start, end, found);
+        return found;
+    }
+
+    /**
+     * Computes how many items of the stack's kind fit into {@code [start, end)}: the room left in
+     * stacks with the same item and components plus a full stack per accepting empty slot.
+     * {@link IndexedContainer}s answer 0 in O(1) when full, and only visit the item's own slots.
+     */
+    public static int capacityFor(Container container, ItemStack stack, int start, int end) {
+        if (stack.isEmpty()) return 0;
+        int limit = container.getMaxStackSize(stack);
+        int capacity = 0;
+
+        if (container instanceof IndexedContainer indexed) {
+            ContainerIndex index = indexed.getContainerIndex();
+            if (!index.hasRoomFor(stack.getItem())) return 0;
+
+            IntList slots = index.getSlots(stack.getItem());
+            for (int i = 0; i < slots.size(); i++) {
+                int slot = slots.getInt(i);
+                if (slot < start) continue;
+                if (slot >= end) break;
+                capacity += roomIn(container.getItem(slot), stack, limit);
+            }
+            for (int slot = index.nextEmptySlot(start); slot >= 0 && slot < end; slot = index.nextEmptySlot(slot + 1)) {
+                if (container.canPlaceItem(slot, stack)) capacity += limit;
+            }
+            return capacity;
+        }
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack existing = container.getItem(slot);
+            if (existing.isEmpty()) {
+                if (container.canPlaceItem(slot, stack)) capacity += limit;
+            } else {
+                capacity += roomIn(existing, stack, limit);
+            }
+        }
+        return capacity;
+    }
+
+    private static int roomIn(ItemStack existing, ItemStack stack, int limit) {
+        return ItemStack.isSameItemSameComponents(existing, stack) ? Math.max(0, limit - existing.getCount()) : 0;
+    }
+
+    /**
+     * Counts empty slots in {@code [start, end)}, memoized for {@link TrackedContainer}s
+     * and answered from the index of {@link IndexedContainer}s.
+     */
+    public static int countEmpty(Container container, int start, int end) {
+        if (container instanceof IndexedContainer indexed && start == 0 && end == container.getContainerSize()) {
+            return indexed.getContainerIndex().getEmptySlotCount();
+        }
+
+        ContainerTracker tracker = ContainerTracker.of(container);
+        if (tracker != null) {
+            int cached = tracker.getCachedResult(ContainerTracker.QueryKind.EMPTY_SLOTS, start, end);
+            if (cached != ContainerTracker.NO_RESULT) return cached;
+        }
+
+        int empty = 0;
+        for (int slot = start; slot < end; slot++) {
+            if (container.getItem(slot).isEmpty()) empty++;
+        }
+
+        if (tracker != null) tracker.cacheResult(ContainerTracker.QueryKind.EMPTY_SLOTS, start, end, empty);
+        return empty;
+    }
+
+    /**
+     * Gets the slots in {@code [start, end)} holding candidate items of the predicate, in ascending order.
+     *
+     * @return The candidate slots, or null if the container is not indexed or the predicate
+     * may match any item, in which case every slot has to be scanned
+     */
+    @Nullable
+    public static int[] candidateSlots(Container container, InventoryPredicate predicate, int start, int end) {
+        if (!(container instanceof IndexedContainer indexed)) return null;
+
+        ItemCandidates candidates = predicate.candidates();
+        if (candidates.isNone()) return NO_SLOTS;
+        if (candidates.isAny() || candidates.size() > end - start) return null;
+
+        ContainerIndex index = indexed.getContainerIndex();
+        IntArrayList slots = new IntArrayList();
+        for (Item item : candidates.getItems()) {
+            IntList itemSlots = index.getSlots(item);
+            for (int i = 0; i < itemSlots.size(); i++) {
+                int slot = itemSlots.getInt(i);
+                if (slot >= start && slot < end) slots.add(slot);
+            }
+        }
+
+        int[] result = slots.toIntArray();
+        if (candidates.size() > 1) Arrays.sort(result);
+        return result;
+    }
+
+    public static int getRangeStart(Container container, @Nullable SlotRange range) {
+        return range != null ? range.getSafeStart(container) : 0;
+    }
+
+    public static int getRangeEnd(Container container, @Nullable SlotRange range) {
+        return range != null ? range.getSafeEnd(container) : container.getContainerSize();
+    }
+
+    /**
+     * Gets a slot's stack for in-place modification. Staged containers hand out a private copy.
+     */
+    public static ItemStack getForModification(Container container, int slot) {
+        return container instanceof StagedContainer staged ? staged.getItemForWrite(slot) : container.getItem(slot);
+    }
+
+    /**
+     * Notifies container-side bookkeeping that a slot's stack was modified in place.
+     */
+    public static void onSlotModified(Container container, int slot) {
+        if (container instanceof IndexedContainer indexed) {
+            indexed.getContainerIndex().onSetItem(slot);
+        }
+        if (container instanceof TrackedContainer tracked) {
+            tracked.getContainerTracker().onSlotChanged(slot);
+        }
+    }
+
+    /**
+     * Fires {@link Container#setChanged()} after writes that all went through {@code setItem} or
+     * {@link #onSlotModified}, so the index of {@link IndexedContainer}s does not verify them again
+     * and the tracker of {@link TrackedContainer}s only keeps the written slots dirty.
+     */
+    public static void setChangedReported(Container container) {
+        ContainerTracker tracker = ContainerTracker.of(container);
+        if (tracker != null) tracker.enterReportedChange();
+        try {
+            if (container instanceof IndexedContainer indexed) {
+                indexed.getContainerIndex().runReported(container::setChanged);
+            } else {
+                container.setChanged();
+            }
+        } finally {
+            if (tracker != null) tracker.exitReportedChange();
+        }
+    }
+
+    private static final class MergeGroup {
+        final ItemStack prototype;
+        final int rawId;
+        long total;
+
+        MergeGroup(ItemStack prototype, int rawId) {
+            this.prototype = prototype;
+            this.rawId = rawId;
+        }
+    }
+}
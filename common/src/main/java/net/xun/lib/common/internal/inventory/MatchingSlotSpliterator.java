@@ -0,0 +1,76 @@
+package net.xun.lib.common.internal.inventory;
+
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotStack;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Lazily filtering spliterator over a container slot range, yielding live stacks.
+ * Splits the remaining range in halves down to {@link #MIN_SPLIT_SIZE} slots.
+ */
+@ApiStatus.Internal
+public final class MatchingSlotSpliterator implements Spliterator<SlotStack> {
+
+    private static final int MIN_SPLIT_SIZE = 16;
+
+    private final Container container;
+    private final InventoryPredicate predicate;
+    private int slot;
+    private final int end;
+
+    public MatchingSlotSpliterator(Container container, InventoryPredicate predicate, int start, int end) {
+        this.container = container;
+        this.predicate = predicate;
+        this.slot = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SlotStack> action) {
+        while (slot < end) {
+            int current = slot++;
+            ItemStack stack = container.getItem(current);
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                action.accept(new SlotStack(current, stack));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super SlotStack> action) {
+        for (; slot < end; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                action.accept(new SlotStack(slot, stack));
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<SlotStack> trySplit() {
+        int remaining = end - slot;
+        if (remaining < MIN_SPLIT_SIZE * 2) return null;
+
+        int mid = slot + remaining / 2;
+        Spliterator<SlotStack> prefix = new MatchingSlotSpliterator(container, predicate, slot, mid);
+        slot = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(0, end - slot);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
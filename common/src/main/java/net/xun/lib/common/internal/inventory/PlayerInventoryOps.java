@@ -0,0 +1,117 @@
+package net.xun.lib.common.internal.inventory;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.exceptions.UtilityClassException;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Player inventory queries reading the {@code items}, {@code armor} and {@code offhand}
+ * compartments directly, instead of resolving the compartment in {@link Inventory#getItem(int)}
+ * for every slot. Slot numbers are the usual container slots.
+ * <p>
+ * Results are not memoized through the inventory's tracker; every call reads the compartments.
+ * <p>
+ * Callers are responsible for validating the inventory and arguments beforehand.
+ */
+@ApiStatus.Internal
+public final class PlayerInventoryOps {
+
+    private PlayerInventoryOps() throws UtilityClassException {
+        throw new UtilityClassException();
+    }
+
+    /**
+     * Checks for at least {@code minCount} matching items in {@code [start, end)}, stopping as soon
+     * as the count is reached.
+     */
+    public static boolean hasCount(Inventory inventory, InventoryPredicate predicate, int minCount, int start, int end) {
+        int armorBase = inventory.items.size();
+        int offhandBase = armorBase + inventory.armor.size();
+        int count = countUpTo(inventory.items, 0, predicate, minCount, start, end);
+        if (count < minCount) count += countUpTo(inventory.armor, armorBase, predicate, minCount - count, start, end);
+        if (count < minCount) count += countUpTo(inventory.offhand, offhandBase, predicate, minCount - count, start, end);
+        return count >= minCount;
+    }
+
+    /**
+     * Finds the first matching slot in {@code [start, end)}.
+     *
+     * @return Slot index, or -1 if none
+     */
+    public static int findFirst(Inventory inventory, InventoryPredicate predicate, int start, int end) {
+        int armorBase = inventory.items.size();
+        int offhandBase = armorBase + inventory.armor.size();
+        int found = findFirst(inventory.items, 0, predicate, start, end);
+        if (found < 0) found = findFirst(inventory.armor, armorBase, predicate, start, end);
+        if (found < 0) found = findFirst(inventory.offhand, offhandBase, predicate, start, end);
+        return found;
+    }
+
+    /**
+     * Collects copies of the matching stacks in {@code [start, end)}, in slot order.
+     */
+    public static ImmutableList<ItemStack> collect(Inventory inventory, InventoryPredicate predicate, int start, int end) {
+        int armorBase = inventory.items.size();
+        int offhandBase = armorBase + inventory.armor.size();
+        ImmutableList.Builder<ItemStack> matches = ImmutableList.builder();
+        collect(inventory.items, 0, predicate, start, end, matches);
+        collect(inventory.armor, armorBase, predicate, start, end, matches);
+        collect(inventory.offhand, offhandBase, predicate, start, end, matches);
+        return matches.build();
+    }
+
+    /**
+     * Counts empty slots over all compartments.
+     */
+    public static int countEmpty(Inventory inventory) {
+        return countEmpty(inventory.items) + countEmpty(inventory.armor) + countEmpty(inventory.offhand);
+    }
+
+    // ======================== COMPARTMENT LOOPS ======================== //
+
+    private static int countUpTo(NonNullList<ItemStack> list, int base, InventoryPredicate predicate, int limit, int start, int end) {
+        int from = Math.max(start - base, 0);
+        int to = Math.min(end - base, list.size());
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            ItemStack stack = list.get(i);
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                count += stack.getCount();
+                if (count >= limit) return count;
+            }
+        }
+        return count;
+    }
+
+    private static int findFirst(NonNullList<ItemStack> list, int base, InventoryPredicate predicate, int start, int end) {
+        int from = Math.max(start - base, 0);
+        int to = Math.min(end - base, list.size());
+        for (int i = from; i < to; i++) {
+            ItemStack stack = list.get(i);
+            if (!stack.isEmpty() && predicate.test(stack)) return base + i;
+        }
+        return -1;
+    }
+
+    private static void collect(NonNullList<ItemStack> list, int base, InventoryPredicate predicate, int start, int end,
+                                ImmutableList.Builder<ItemStack> matches) {
+        int from = Math.max(start - base, 0);
+        int to = Math.min(end - base, list.size());
+        for (int i = from; i < to; i++) {
+            ItemStack stack = list.get(i);
+            if (!stack.isEmpty() && predicate.test(stack)) matches.add(stack.copy());
+        }
+    }
+
+    private static int countEmpty(NonNullList<ItemStack> list) {
+        int empty = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).isEmpty()) empty++;
+        }
+        return empty;
+    }
+}
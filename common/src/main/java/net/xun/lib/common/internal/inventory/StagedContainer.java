@@ -0,0 +1,137 @@
+package net.xun.lib.common.internal.inventory;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Copy-on-write overlay over a container.
+ * <p>
+ * Reads fall through to the backing container until a slot is written, at which point
+ * the slot's stack is copied into the overlay. Nothing reaches the backing container
+ * before {@link #applyTo()}, so discarding the overlay rolls every change back.
+ */
+@ApiStatus.Internal
+public class StagedContainer implements Container {
+
+    private final Container delegate;
+    private final ItemStack[] staged;
+    private final IntArrayList stagedSlots = new IntArrayList();
+
+    public StagedContainer(Container delegate) {
+        this.delegate = delegate;
+        this.staged = new ItemStack[delegate.getContainerSize()];
+    }
+
+    public Container getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Gets a private copy of the slot's stack that can be modified in place.
+     */
+    public ItemStack getItemForWrite(int slot) {
+        ItemStack stack = staged[slot];
+        if (stack == null) {
+            stack = delegate.getItem(slot).copy();
+            stage(slot, stack);
+        }
+        return stack;
+    }
+
+    /**
+     * Writes every staged slot that differs from the backing container, then fires a single
+     * {@link Container#setChanged()} if anything was written.
+     *
+     * @return True if the backing container was modified
+     */
+    public boolean applyTo() {
+        boolean modified = false;
+        for (int i = 0; i < stagedSlots.size(); i++) {
+            int slot = stagedSlots.getInt(i);
+            ItemStack stack = staged[slot];
+            if (!ItemStack.matches(delegate.getItem(slot), stack)) {
+                delegate.setItem(slot, stack);
+                modified = true;
+            }
+        }
+        if (modified) InventoryOps.setChangedReported(delegate);
+        return modified;
+    }
+
+    private void stage(int slot, ItemStack stack) {
+        if (staged[slot] == null) stagedSlots.add(slot);
+        staged[slot] = stack;
+    }
+
+    @Override
+    public int getContainerSize() {
+        return staged.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (int slot = 0; slot < staged.length; slot++) {
+            if (!getItem(slot).isEmpty()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ItemStack getItem(int slot) {
+        ItemStack stack = staged[slot];
+        return stack != null ? stack : delegate.getItem(slot);
+    }
+
+    @Override
+    public ItemStack removeItem(int slot, int amount) {
+        ItemStack stack = getItemForWrite(slot);
+        return stack.isEmpty() || amount <= 0 ? ItemStack.EMPTY : stack.split(amount);
+    }
+
+    @Override
+    public ItemStack removeItemNoUpdate(int slot) {
+        ItemStack stack = getItemForWrite(slot);
+        stage(slot, ItemStack.EMPTY);
+        return stack;
+    }
+
+    @Override
+    public void setItem(int slot, ItemStack stack) {
+        stage(slot, stack);
+    }
+
+    @Override
+    public int getMaxStackSize() {
+        return delegate.getMaxStackSize();
+    }
+
+    @Override
+    public int getMaxStackSize(ItemStack stack) {
+        return delegate.getMaxStackSize(stack);
+    }
+
+    @Override
+    public boolean canPlaceItem(int slot, ItemStack stack) {
+        return delegate.canPlaceItem(slot, stack);
+    }
+
+    @Override
+    public void setChanged() {
+        // Deferred until applyTo()
+    }
+
+    @Override
+    public boolean stillValid(Player player) {
+        return delegate.stillValid(player);
+    }
+
+    @Override
+    public void clearContent() {
+        for (int slot = 0; slot < staged.length; slot++) {
+            stage(slot, ItemStack.EMPTY);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.xun.lib.common.internal.mixin;
+
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.tracking.ContainerTracker;
+import net.xun.lib.common.api.inventory.tracking.TrackedContainer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Reports player {@link Inventory} modifications to a {@link ContainerTracker}.
+ * <p>
+ * Several vanilla paths grow or shrink player stacks in place without calling {@code setChanged()},
+ * so {@code tick()} additionally invalidates the tracker once per player tick.
+ */
+@Mixin(Inventory.class)
+public abstract class MixinInventory implements TrackedContainer {
+
+    @Unique
+    private final ContainerTracker xunlib$tracker = new ContainerTracker();
+
+    @Override
+    public ContainerTracker getContainerTracker() {
+        return xunlib$tracker;
+    }
+
+    @Inject(at = @At("HEAD"), method = "setItem")
+    private void xunlib$onSetItem(int slot, ItemStack stack, CallbackInfo info) {
+        xunlib$tracker.onSlotChanged(slot);
+    }
+
+    @Inject(at = @At("HEAD"), method = "removeItem(II)Lnet/minecraft/world/item/ItemStack;")
+    private void xunlib$onRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> info) {
+        xunlib$tracker.onSlotChanged(slot);
+    }
+
+    @Inject(at = @At("HEAD"), method = "removeItemNoUpdate")
+    private void xunlib$onRemoveItemNoUpdate(int slot, CallbackInfoReturnable<ItemStack> info) {
+        xunlib$tracker.onSlotChanged(slot);
+    }
+
+    @Inject(at = @At("RETURN"), method = "removeItem(Lnet/minecraft/world/item/ItemStack;)V")
+    private void xunlib$onRemoveStack(ItemStack stack, CallbackInfo info) {
+        xunlib$tracker.onContentsChanged();
+    }
+
+    @Inject(at = @At("RETURN"), method = "add(ILnet/minecraft/world/item/ItemStack;)Z")
+    private void xunlib$onAdd(int slot, ItemStack stack, CallbackInfoReturnable<Boolean> info) {
+        xunlib$tracker.onContentsChanged();
+    }
+
+    @Inject(at = @At("RETURN"), method = "clearContent")
+    private void xunlib$onClearContent(CallbackInfo info) {
+        xunlib$tracker.onContentsChanged();
+    }
+
+    @Inject(at = @At("HEAD"), method = "setChanged")
+    private void xunlib$onSetChanged(CallbackInfo info) {
+        xunlib$tracker.onContentsChanged();
+    }
+
+    @Inject(at = @At("HEAD"), method = "tick")
+    private void xunlib$onTick(CallbackInfo info) {
+        xunlib$tracker.onContentsChanged();
+    }
+}
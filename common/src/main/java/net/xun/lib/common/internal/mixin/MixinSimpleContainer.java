@@ -0,0 +1,61 @@
+package net.xun.lib.common.internal.mixin;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.xun.lib.common.api.inventory.tracking.ContainerTracker;
+import net.xun.lib.common.api.inventory.tracking.TrackedContainer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Reports {@link SimpleContainer} modifications to a {@link ContainerTracker}.
+ * Slot changes are recorded at method head, and the container's own {@code setChanged()} call
+ * inside {@code setItem} and {@code removeItem} runs as a reported change.
+ */
+@Mixin(SimpleContainer.class)
+public abstract class MixinSimpleContainer implements TrackedContainer {
+
+    @Unique
+    private final ContainerTracker xunlib$tracker = new ContainerTracker();
+
+    @Override
+    public ContainerTracker getContainerTracker() {
+        return xunlib$tracker;
+    }
+
+    @Inject(at = @At("HEAD"), method = "setItem")
+    private void xunlib$onSetItem(int slot, ItemStack stack, CallbackInfo info) {
+        xunlib$tracker.onSlotChanged(slot);
+        xunlib$tracker.enterReportedChange();
+    }
+
+    @Inject(at = @At("RETURN"), method = "setItem")
+    private void xunlib$afterSetItem(int slot, ItemStack stack, CallbackInfo info) {
+        xunlib$tracker.exitReportedChange();
+    }
+
+    @Inject(at = @At("HEAD"), method = "removeItem")
+    private void xunlib$onRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> info) {
+        xunlib$tracker.onSlotChanged(slot);
+        xunlib$tracker.enterReportedChange();
+    }
+
+    @Inject(at = @At("RETURN"), method = "removeItem")
+    private void xunlib$afterRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> info) {
+        xunlib$tracker.exitReportedChange();
+    }
+
+    @Inject(at = @At("HEAD"), method = "removeItemNoUpdate")
+    private void xunlib$onRemoveItemNoUpdate(int slot, CallbackInfoReturnable<ItemStack> info) {
+        xunlib$tracker.onSlotChanged(slot);
+    }
+
+    @Inject(at = @At("HEAD"), method = "setChanged")
+    private void xunlib$onSetChanged(CallbackInfo info) {
+        xunlib$tracker.onContentsChanged();
+    }
+}
@@ -0,0 +1,69 @@
+package net.xun.lib.common.api.inventory;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.api.util.InventoryUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static net.xun.lib.common.api.util.InventoryTestUtils.assertSameContents;
+import static net.xun.lib.common.api.util.InventoryTestUtils.copyOf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InventoryCycleOrderTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void rangesOutsideTheContainerYieldEmptyTables() {
+        SimpleContainer chest = new SimpleContainer(27);
+
+        for (InventoryCycleOrder order : InventoryCycleOrder.values()) {
+            assertArrayEquals(new int[0], order.getSlotTable(chest, PlayerInventorySection.OFFHAND.getSlotRange()), order.name());
+            assertArrayEquals(new int[0], order.getSlotTable(chest, SlotRange.of(4, 4)), order.name());
+            assertEquals(0, order.getSlotOrder(chest, PlayerInventorySection.ARMOR.getSlotRange()).size(), order.name());
+        }
+    }
+
+    @Test
+    void tablesAreClampedAndShared() {
+        SimpleContainer chest = new SimpleContainer(27);
+        SlotRange range = SlotRange.of(24, 30);
+
+        assertArrayEquals(new int[] { 24, 25, 26 }, InventoryCycleOrder.FORWARD.getSlotTable(chest, range));
+        assertArrayEquals(new int[] { 26, 25, 24 }, InventoryCycleOrder.REVERSE.getSlotTable(chest, range));
+        assertSame(InventoryCycleOrder.FORWARD.getSlotTable(chest, range),
+                InventoryCycleOrder.FORWARD.getSlotTable(new SimpleContainer(27), SlotRange.of(24, 27)));
+    }
+
+    @Test
+    void operationsOnEmptyRangesTouchNothing() {
+        SimpleContainer chest = new SimpleContainer(27);
+        InventoryTestUtils.fillRandomly(chest, new Random(3L));
+        chest.setItem(0, new ItemStack(Items.STONE, 10));
+        SimpleContainer other = new SimpleContainer(new ItemStack(Items.STONE, 10));
+        SimpleContainer chestBefore = copyOf(chest);
+        SimpleContainer otherBefore = copyOf(other);
+        SlotRange offhand = PlayerInventorySection.OFFHAND.getSlotRange();
+
+        for (InventoryCycleOrder order : InventoryCycleOrder.values()) {
+            InventoryUtils.extractItems(chest, stack -> true, 64, offhand, order);
+            assertEquals(0, InventoryUtils.transfer(chest, other, stack -> true, 64, offhand, null, order), order.name());
+            assertEquals(0, InventoryUtils.transfer(other, chest, InventoryPredicate.matchesItem(Items.STONE), 64, null, offhand, order), order.name());
+        }
+
+        assertSameContents(chestBefore, chest);
+        assertSameContents(otherBefore, other);
+    }
+}
@@ -0,0 +1,77 @@
+package net.xun.lib.common.api.inventory;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventorySnapshotTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void snapshotIsDetachedFromTheSource() {
+        SimpleContainer chest = new SimpleContainer(new ItemStack(Items.STONE, 10), ItemStack.EMPTY);
+        InventorySnapshot snapshot = InventorySnapshot.of(chest);
+
+        chest.getItem(0).grow(5);
+        chest.setItem(1, new ItemStack(Items.DIRT, 3));
+
+        assertEquals(10, snapshot.getItem(0).getCount());
+        assertTrue(snapshot.getItem(1).isEmpty());
+        assertTrue(snapshot.isStale());
+        assertFalse(InventorySnapshot.of(chest).isStale());
+    }
+
+    @Test
+    void stackQueriesRunOffThread() {
+        SimpleContainer chest = new SimpleContainer(new ItemStack(Items.STONE, 10), new ItemStack(Items.STONE, 7));
+        InventorySnapshot snapshot = InventorySnapshot.of(chest);
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            int count = CompletableFuture.supplyAsync(
+                    () -> InventoryOps.count(snapshot, InventoryPredicate.matchesItem(Items.STONE), 0, 2), worker).join();
+            assertEquals(17, count);
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    void slotRulesAreOwnerThreadOnly() {
+        SimpleContainer chest = new SimpleContainer(new ItemStack(Items.STONE, 60), ItemStack.EMPTY);
+        InventorySnapshot snapshot = InventorySnapshot.of(chest);
+        ItemStack stone = new ItemStack(Items.STONE);
+
+        assertTrue(snapshot.canPlaceItem(1, stone));
+        assertEquals(68, InventoryOps.capacityFor(snapshot, stone, 0, 2));
+
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            CompletionException failure = assertThrows(CompletionException.class, () -> CompletableFuture.supplyAsync(
+                    () -> InventoryOps.capacityFor(snapshot, stone, 0, 2), worker).join());
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+            assertThrows(CompletionException.class, () -> CompletableFuture.supplyAsync(
+                    () -> snapshot.getMaxStackSize(stone), worker).join());
+        } finally {
+            worker.shutdown();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package net.xun.lib.common.api.inventory;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.internal.inventory.StagedContainer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static net.xun.lib.common.api.util.InventoryTestUtils.assertSameContents;
+import static net.xun.lib.common.api.util.InventoryTestUtils.copyOf;
+import static net.xun.lib.common.api.util.InventoryTestUtils.named;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryTransactionTest {
+
+    private static final InventoryPredicate IRON = InventoryPredicate.matchesItem(Items.IRON_INGOT);
+    private static final InventoryPredicate STICK = InventoryPredicate.matchesItem(Items.STICK);
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void commitAppliesEveryOperation() {
+        SimpleContainer input = new SimpleContainer(new ItemStack(Items.IRON_INGOT, 2), new ItemStack(Items.STICK, 4),
+                new ItemStack(Items.IRON_INGOT, 3));
+        SimpleContainer output = new SimpleContainer(1);
+
+        boolean committed = crafting(input, output).commit();
+
+        assertTrue(committed);
+        assertTrue(input.getItem(0).isEmpty());
+        assertEquals(2, input.getItem(1).getCount());
+        assertEquals(2, input.getItem(2).getCount());
+        assertTrue(ItemStack.matches(new ItemStack(Items.IRON_PICKAXE), output.getItem(0)));
+    }
+
+    @Test
+    void failedExtractRollsBackEarlierOperations() {
+        SimpleContainer input = new SimpleContainer(new ItemStack(Items.IRON_INGOT, 5), new ItemStack(Items.STICK, 1));
+        SimpleContainer output = new SimpleContainer(1);
+        SimpleContainer inputBefore = copyOf(input);
+        ItemStack iron = input.getItem(0);
+
+        boolean committed = crafting(input, output).commit();
+
+        assertFalse(committed);
+        assertSameContents(inputBefore, input);
+        assertTrue(output.getItem(0).isEmpty());
+        // Staged extraction must not have shrunk the original stack in place
+        assertEquals(5, iron.getCount());
+    }
+
+    @Test
+    void insertThatDoesNotFitRollsBack() {
+        SimpleContainer input = new SimpleContainer(new ItemStack(Items.IRON_INGOT, 5), new ItemStack(Items.STICK, 5));
+        SimpleContainer output = new SimpleContainer(new ItemStack(Items.DIRT, 64));
+        SimpleContainer inputBefore = copyOf(input);
+        SimpleContainer outputBefore = copyOf(output);
+
+        assertFalse(crafting(input, output).commit());
+        assertSameContents(inputBefore, input);
+        assertSameContents(outputBefore, output);
+    }
+
+    @Test
+    void simulateNeverWrites() {
+        SimpleContainer input = new SimpleContainer(new ItemStack(Items.IRON_INGOT, 5), new ItemStack(Items.STICK, 5));
+        SimpleContainer output = new SimpleContainer(1);
+        SimpleContainer inputBefore = copyOf(input);
+        InventoryTransaction transaction = crafting(input, output);
+
+        assertTrue(transaction.simulate());
+        assertSameContents(inputBefore, input);
+        assertTrue(output.getItem(0).isEmpty());
+
+        assertTrue(transaction.commit());
+        assertEquals(2, input.getItem(0).getCount());
+    }
+
+    @Test
+    void moveKeepsComponentsAndLaterOperationsSeeIt() {
+        SimpleContainer from = new SimpleContainer(named(Items.STONE, 10, "Named"), new ItemStack(Items.STONE, 10));
+        SimpleContainer to = new SimpleContainer(2);
+
+        boolean committed = InventoryTransaction.create()
+                .move(from, to, InventoryPredicate.matchesItem(Items.STONE), 15, null, InventoryCycleOrder.FORWARD)
+                .extract(to, stack -> stack.getCount() == 5, 5, null, InventoryCycleOrder.FORWARD)
+                .commit();
+
+        assertTrue(committed);
+        assertTrue(from.getItem(0).isEmpty());
+        assertEquals(5, from.getItem(1).getCount());
+        assertTrue(ItemStack.matches(named(Items.STONE, 10, "Named"), to.getItem(0)));
+        assertTrue(to.getItem(1).isEmpty());
+    }
+
+    @Test
+    void moveIntoFullContainerRollsBack() {
+        SimpleContainer from = new SimpleContainer(new ItemStack(Items.STONE, 10));
+        SimpleContainer to = new SimpleContainer(new ItemStack(Items.STONE, 60));
+
+        assertFalse(InventoryTransaction.create()
+                .move(from, to, InventoryPredicate.matchesItem(Items.STONE), 10, null, InventoryCycleOrder.FORWARD)
+                .commit());
+        assertEquals(10, from.getItem(0).getCount());
+        assertEquals(60, to.getItem(0).getCount());
+    }
+
+    @Test
+    void insertsThatOnlyFitAloneRollBack() {
+        SimpleContainer output = new SimpleContainer(new ItemStack(Items.STONE, 40), ItemStack.EMPTY);
+        SimpleContainer outputBefore = copyOf(output);
+        InventoryTransaction transaction = InventoryTransaction.create()
+                .insert(output, new ItemStack(Items.DIRT, 64))
+                .insert(output, new ItemStack(Items.STONE, 30));
+
+        // Each stack fits on its own, but the dirt takes the slot the overflowing stone needs
+        assertFalse(transaction.commit());
+        assertSameContents(outputBefore, output);
+
+        assertTrue(InventoryTransaction.create()
+                .insert(output, new ItemStack(Items.DIRT, 64))
+                .insert(output, new ItemStack(Items.STONE, 24))
+                .commit());
+        assertEquals(64, output.getItem(0).getCount());
+        assertEquals(64, output.getItem(1).getCount());
+    }
+
+    @Test
+    void insertsSeeEarlierOperationsOnTheSameContainer() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 64));
+        SimpleContainer other = new SimpleContainer(1);
+
+        boolean committed = InventoryTransaction.create()
+                .insert(other, new ItemStack(Items.DIRT, 1))
+                .insert(container, new ItemStack(Items.DIRT, 1))
+                .insert(other, new ItemStack(Items.DIRT, 1))
+                .commit();
+        assertFalse(committed);
+        assertTrue(other.getItem(0).isEmpty());
+
+        committed = InventoryTransaction.create()
+                .insert(other, new ItemStack(Items.DIRT, 1))
+                .extract(container, InventoryPredicate.matchesItem(Items.STONE), 64, null, InventoryCycleOrder.FORWARD)
+                .insert(container, new ItemStack(Items.DIRT, 1))
+                .insert(other, new ItemStack(Items.DIRT, 1))
+                .insert(other, ItemStack.EMPTY)
+                .commit();
+        assertTrue(committed);
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 1), container.getItem(0)));
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 2), other.getItem(0)));
+    }
+
+    @Test
+    void stagedPlayerInventoryUsesPlayerSlotOrders() {
+        Inventory inventory = new Inventory(null);
+        StagedContainer staged = new StagedContainer(inventory);
+
+        for (InventoryCycleOrder order : InventoryCycleOrder.values()) {
+            assertArrayEquals(order.getSlotTable(inventory, null), order.getSlotTable(staged, null), order.name());
+        }
+    }
+
+    private static InventoryTransaction crafting(SimpleContainer input, SimpleContainer output) {
+        return InventoryTransaction.create()
+                .extract(input, IRON, 3, null, InventoryCycleOrder.FORWARD)
+                .extract(input, STICK, 2, null, InventoryCycleOrder.FORWARD)
+                .insert(output, new ItemStack(Items.IRON_PICKAXE));
+    }
+}
@@ -0,0 +1,272 @@
+package net.xun.lib.common.api.inventory.index;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.InventoryCycleOrder;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContainerIndexTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void setItemUpdatesSlotsCountsAndRoom() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(9);
+        ContainerIndex index = container.getContainerIndex();
+        assertEquals(9, index.getEmptySlotCount());
+
+        container.setItem(4, new ItemStack(Items.STONE, 10));
+        container.setItem(1, new ItemStack(Items.STONE, 5));
+        container.setItem(2, new ItemStack(Items.DIRT, 64));
+
+        assertEquals(15, index.getCount(Items.STONE));
+        assertEquals(10, index.getCount(Items.STONE, 2, 9));
+        assertEquals(IntList.of(1, 4), index.getSlots(Items.STONE));
+        assertEquals(4, index.findFirstSlot(Items.STONE, 2, 9));
+        assertEquals(-1, index.findFirstSlot(Items.DIRT, 3, 9));
+        assertEquals(6, index.getEmptySlotCount());
+        assertEquals(3, index.nextEmptySlot(1));
+        assertEquals(54 + 59, index.getFreeRoom(Items.STONE));
+        assertEquals(0, index.getFreeRoom(Items.DIRT));
+
+        container.setItem(4, ItemStack.EMPTY);
+        container.setItem(2, new ItemStack(Items.STONE, 1));
+
+        assertEquals(6, index.getCount(Items.STONE));
+        assertEquals(IntList.of(1, 2), index.getSlots(Items.STONE));
+        assertFalse(index.contains(Items.DIRT));
+        assertEquals(7, index.getEmptySlotCount());
+        assertEquals(59 + 63, index.getFreeRoom(Items.STONE));
+    }
+
+    @Test
+    void setItemIsIndexedWithoutRescanningTheContainer() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(54);
+        ContainerIndex index = container.getContainerIndex();
+        assertEquals(54, index.getEmptySlotCount());
+
+        // SimpleContainer.setItem fires setChanged() itself, which must not force a full verification
+        container.reads = 0;
+        container.setItem(7, new ItemStack(Items.STONE, 3));
+        assertEquals(3, index.getCount(Items.STONE));
+        assertEquals(53, index.getEmptySlotCount());
+        assertEquals(1, container.reads);
+    }
+
+    @Test
+    void inventoryOperationsKeepTheIndexValid() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(54);
+        ContainerIndex index = container.getContainerIndex();
+        container.setItem(0, new ItemStack(Items.STONE, 10));
+        assertEquals(10, index.getCount(Items.STONE));
+
+        SimpleContainer source = new SimpleContainer(new ItemStack(Items.STONE, 60), new ItemStack(Items.DIRT, 5));
+        InventoryUtils.transfer(source, container, stack -> true, 64, null, null, InventoryCycleOrder.FORWARD);
+        InventoryUtils.extractItems(container, InventoryPredicate.matchesItem(Items.DIRT), 2, null, InventoryCycleOrder.FORWARD);
+
+        // Writes and the trailing setChanged() are reported slot by slot, so queries read nothing
+        container.reads = 0;
+        assertEquals(70, index.getCount(Items.STONE));
+        assertEquals(3, index.getCount(Items.DIRT));
+        assertEquals(51, index.getEmptySlotCount());
+        assertEquals(0, container.reads);
+    }
+
+    @Test
+    void fullContainerIsRejectedWithoutReadingSlots() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(27);
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            container.setItem(slot, new ItemStack(Items.STONE, 64));
+        }
+        container.setItem(5, new ItemStack(Items.DIRT, 64));
+
+        container.reads = 0;
+        assertEquals(0, InventoryOps.capacityFor(container, new ItemStack(Items.STONE), 0, 27));
+        assertEquals(0, InventoryOps.capacityFor(container, new ItemStack(Items.ENDER_PEARL), 0, 27));
+        List<ItemStack> leftovers = InventoryOps.insert(container, List.of(new ItemStack(Items.STONE, 3), new ItemStack(Items.DIRT, 2)), false);
+        assertEquals(0, container.reads);
+        InventoryTestUtils.assertSameStacks(List.of(new ItemStack(Items.STONE, 3), new ItemStack(Items.DIRT, 2)), leftovers);
+
+        // Freeing room for one item only reopens that item
+        container.setItem(9, new ItemStack(Items.STONE, 60));
+        assertEquals(4, InventoryOps.capacityFor(container, new ItemStack(Items.STONE), 0, 27));
+        assertEquals(0, InventoryOps.capacityFor(container, new ItemStack(Items.DIRT), 0, 27));
+        container.setItem(9, ItemStack.EMPTY);
+        assertEquals(64, InventoryOps.capacityFor(container, new ItemStack(Items.DIRT), 0, 27));
+        assertEquals(0, InventoryOps.capacityFor(container, new ItemStack(Items.DIRT), 10, 27));
+    }
+
+    @Test
+    void onSetItemReindexesDirectWrites() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(4);
+        ContainerIndex index = container.getContainerIndex();
+        assertEquals(4, index.getEmptySlotCount());
+
+        // Writes to the backing list bypass setItem and setChanged
+        container.getItems().set(3, new ItemStack(Items.ENDER_PEARL, 6));
+        index.onSetItem(3);
+
+        assertEquals(6, index.getCount(Items.ENDER_PEARL));
+        assertEquals(3, index.findFirstSlot(Items.ENDER_PEARL, 0, 4));
+        assertEquals(10, index.getFreeRoom(Items.ENDER_PEARL));
+        assertEquals(3, index.getEmptySlotCount());
+    }
+
+    @Test
+    void inPlaceChangesAreSeenAfterSetChanged() {
+        IndexedSimpleContainer container = new IndexedSimpleContainer(2);
+        ContainerIndex index = container.getContainerIndex();
+        container.setItem(0, new ItemStack(Items.STONE, 10));
+        container.setItem(1, new ItemStack(Items.ENDER_PEARL, 4));
+        assertEquals(10, index.getCount(Items.STONE));
+
+        container.getItem(0).shrink(3);
+        container.getItem(1).grow(12);
+        container.setChanged();
+
+        assertEquals(7, index.getCount(Items.STONE));
+        assertEquals(16, index.getCount(Items.ENDER_PEARL));
+        assertEquals(57, index.getFreeRoom(Items.STONE));
+        assertEquals(0, index.getFreeRoom(Items.ENDER_PEARL));
+        assertFalse(index.hasRoomFor(Items.ENDER_PEARL));
+
+        // Shrinking to zero empties the slot without replacing the stack
+        container.getItem(0).shrink(7);
+        container.setChanged();
+
+        assertFalse(index.contains(Items.STONE));
+        assertEquals(0, index.getFreeRoom(Items.STONE));
+        assertEquals(1, index.getEmptySlotCount());
+        assertEquals(0, index.nextEmptySlot(0));
+        assertTrue(index.hasRoomFor(Items.ENDER_PEARL));
+    }
+
+    @Test
+    void staysConsistentWithContainerUnderRandomChanges() {
+        Random random = new Random(42L);
+        IndexedSimpleContainer container = new IndexedSimpleContainer(27);
+        ContainerIndex index = container.getContainerIndex();
+        InventoryTestUtils.fillRandomly(container, random);
+
+        for (int step = 0; step < 2000; step++) {
+            int slot = random.nextInt(container.getContainerSize());
+            ItemStack stack = container.getItem(slot);
+
+            switch (random.nextInt(4)) {
+                case 0 -> container.setItem(slot, random.nextInt(3) == 0 ? ItemStack.EMPTY : InventoryTestUtils.randomStack(random));
+                case 1 -> {
+                    if (stack.isEmpty()) break;
+                    int target = random.nextInt(stack.getMaxStackSize() + 1);
+                    stack.setCount(target);
+                    container.setChanged();
+                }
+                case 2 -> container.removeItem(slot, 1 + random.nextInt(8));
+                default -> {
+                    container.getItems().set(slot, InventoryTestUtils.randomStack(random));
+                    index.onSetItem(slot);
+                }
+            }
+            assertConsistent(container, index, step);
+        }
+    }
+
+    private static void assertConsistent(SimpleContainer container, ContainerIndex index, int step) {
+        int size = container.getContainerSize();
+        int empty = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (container.getItem(slot).isEmpty()) empty++;
+        }
+        assertEquals(empty, index.getEmptySlotCount(), "Empty slots after step " + step);
+
+        int from = step % size;
+        int nextEmpty = -1;
+        for (int slot = from; slot < size; slot++) {
+            if (container.getItem(slot).isEmpty()) {
+                nextEmpty = slot;
+                break;
+            }
+        }
+        assertEquals(nextEmpty, index.nextEmptySlot(from), "Next empty slot after step " + step);
+
+        for (Item item : InventoryTestUtils.ITEMS) {
+            IntArrayList slots = new IntArrayList();
+            int total = 0;
+            int ranged = 0;
+            int room = 0;
+            for (int slot = 0; slot < size; slot++) {
+                ItemStack stack = container.getItem(slot);
+                if (stack.isEmpty() || !stack.is(item)) continue;
+
+                slots.add(slot);
+                total += stack.getCount();
+                if (slot >= 5 && slot < 20) ranged += stack.getCount();
+                room += Math.max(0, container.getMaxStackSize(stack) - stack.getCount());
+            }
+            int firstInRange = slots.intStream().filter(slot -> slot >= 5 && slot < 20).findFirst().orElse(-1);
+
+            String at = item + " after step " + step;
+            assertEquals(total, index.getCount(item), "Count of " + at);
+            assertEquals(ranged, index.getCount(item, 5, 20), "Ranged count of " + at);
+            assertEquals(slots, index.getSlots(item), "Slots of " + at);
+            assertEquals(firstInRange, index.findFirstSlot(item, 5, 20), "First slot of " + at);
+            assertEquals(!slots.isEmpty(), index.contains(item), "Presence of " + at);
+            assertEquals(room, index.getFreeRoom(item), "Free room of " + at);
+            assertEquals(ranged, InventoryUtils.getItemCount(container, item, SlotRange.of(5, 20)), "Indexed query of " + at);
+        }
+    }
+
+    /**
+     * Container wired to its index like the {@link IndexedContainer} example, counting slot reads.
+     */
+    private static class IndexedSimpleContainer extends SimpleContainer implements IndexedContainer {
+        private final ContainerIndex index = new ContainerIndex(this);
+        private int reads;
+
+        IndexedSimpleContainer(int size) {
+            super(size);
+        }
+
+        @Override
+        public ContainerIndex getContainerIndex() {
+            return index;
+        }
+
+        @Override
+        public ItemStack getItem(int slot) {
+            reads++;
+            return super.getItem(slot);
+        }
+
+        @Override
+        public void setItem(int slot, ItemStack stack) {
+            index.runReported(() -> super.setItem(slot, stack));
+            index.onSetItem(slot);
+        }
+
+        @Override
+        public void setChanged() {
+            super.setChanged();
+            index.onChanged();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.xun.lib.common.api.inventory.predicates;
+
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.SwordItem;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCandidatesTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void compositesCombineTheirTermsCandidates() {
+        InventoryPredicate stoneOrDirt = InventoryPredicate.anyOf(
+                InventoryPredicate.matchesItem(Items.STONE), InventoryPredicate.matchesItem(Items.DIRT));
+        InventoryPredicate dirtOrPearl = InventoryPredicate.anyOf(
+                InventoryPredicate.matchesItem(Items.DIRT), stack -> stack.getCount() > 1);
+
+        assertEquals(Set.of(Items.STONE, Items.DIRT), stoneOrDirt.candidates().getItems());
+        assertTrue(dirtOrPearl.candidates().isAny());
+        assertEquals(Set.of(Items.STONE, Items.DIRT),
+                InventoryPredicate.allOf(stoneOrDirt, dirtOrPearl).candidates().getItems());
+        assertEquals(Set.of(Items.DIRT), InventoryPredicate.allOf(stoneOrDirt, InventoryPredicate.matchesItem(Items.DIRT))
+                .candidates().getItems());
+        assertTrue(InventoryPredicate.allOf(InventoryPredicate.matchesItem(Items.STONE), InventoryPredicate.IS_EMPTY)
+                .candidates().isNone());
+
+        AdaptivePredicate adaptive = InventoryPredicate.adaptiveAnyOf(List.of(
+                InventoryPredicate.matchesItem(Items.ENDER_PEARL), InventoryPredicate.ofType(SwordItem.class)));
+        assertTrue(adaptive.candidates().mayMatch(Items.ENDER_PEARL));
+        assertTrue(adaptive.candidates().mayMatch(Items.DIAMOND_SWORD));
+        assertFalse(adaptive.candidates().mayMatch(Items.STONE));
+    }
+
+    @Test
+    void candidatesAreComputedOncePerInstance() {
+        InventoryPredicate sword = InventoryPredicate.ofType(SwordItem.class);
+        List<InventoryPredicate> predicates = List.of(
+                sword,
+                InventoryPredicate.matchesItem(Items.STONE, Items.DIRT),
+                InventoryPredicate.anyOf(InventoryPredicate.matchesItem(Items.STONE), sword),
+                InventoryPredicate.allOf(sword, InventoryPredicate.matchesItem(Items.DIAMOND_SWORD, Items.STONE)),
+                InventoryPredicate.adaptiveAllOf(List.of(sword, InventoryPredicate.matchesItem(Items.DIAMOND_SWORD))),
+                InventoryPredicate.adaptiveAnyOf(List.of(sword, InventoryPredicate.matchesItem(Items.STONE))));
+
+        for (InventoryPredicate predicate : predicates) {
+            assertSame(predicate.candidates(), predicate.candidates());
+        }
+    }
+}
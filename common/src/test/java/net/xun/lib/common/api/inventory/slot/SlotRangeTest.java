@@ -0,0 +1,96 @@
+package net.xun.lib.common.api.inventory.slot;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.InventoryCycleOrder;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.api.util.InventoryUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotRangeTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void suppliersAreEvaluatedOnlyWhenResolved() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger end = new AtomicInteger(2);
+        SlotRange range = new SlotRange(() -> {
+            calls.incrementAndGet();
+            return 5;
+        }, end::get);
+
+        // Inverted at construction time, which must neither throw nor evaluate the suppliers
+        assertEquals(0, calls.get());
+
+        SimpleContainer container = new SimpleContainer(9);
+        end.set(7);
+        assertArrayEquals(new int[] { 5, 6 }, range.stream(container).toArray());
+        assertTrue(calls.get() > 0);
+    }
+
+    @Test
+    void invertedRangesAreSwappedEverywhere() {
+        SimpleContainer container = new SimpleContainer(9);
+        SlotRange range = new SlotRange(() -> 6, () -> 2);
+
+        assertEquals(2, range.getSafeStart(container));
+        assertEquals(6, range.getSafeEnd(container));
+        assertArrayEquals(new int[] { 2, 3, 4, 5 }, range.stream(container).toArray());
+        assertArrayEquals(new int[] { 2, 3, 4, 5 }, toArray(range.iterator(container)));
+
+        IntArrayList visited = new IntArrayList();
+        range.forEachSlot(container, visited::add);
+        assertArrayEquals(new int[] { 2, 3, 4, 5 }, visited.toIntArray());
+
+        assertTrue(range.contains(2, container));
+        assertFalse(range.contains(6, container));
+    }
+
+    @Test
+    void boundsAreClampedToTheContainer() {
+        SimpleContainer container = new SimpleContainer(4);
+
+        assertArrayEquals(new int[] { 2, 3 }, SlotRange.of(2, 40).stream(container).toArray());
+        assertArrayEquals(new int[] { 0, 1 }, new SlotRange(() -> 2, () -> -3).stream(container).toArray());
+        assertArrayEquals(new int[0], SlotRange.of(36, 40).stream(container).toArray());
+        assertArrayEquals(new int[0], SlotRange.of(3, 3).stream(container).toArray());
+        assertFalse(SlotRange.of(36, 40).contains(3, container));
+    }
+
+    @Test
+    void operationsUseTheSwappedRange() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 4), new ItemStack(Items.STONE, 4),
+                new ItemStack(Items.STONE, 4), new ItemStack(Items.STONE, 4));
+        SlotRange inverted = new SlotRange(() -> 3, () -> 1);
+
+        assertEquals(8, InventoryUtils.getItemCount(container, Items.STONE, inverted));
+        InventoryUtils.extractItems(container, InventoryPredicate.matchesItem(Items.STONE), 6, inverted, InventoryCycleOrder.FORWARD);
+
+        assertEquals(4, container.getItem(0).getCount());
+        assertTrue(container.getItem(1).isEmpty());
+        assertEquals(2, container.getItem(2).getCount());
+        assertEquals(4, container.getItem(3).getCount());
+    }
+
+    private static int[] toArray(PrimitiveIterator.OfInt iterator) {
+        IntArrayList slots = new IntArrayList();
+        while (iterator.hasNext()) slots.add(iterator.nextInt());
+        return slots.toIntArray();
+    }
+}
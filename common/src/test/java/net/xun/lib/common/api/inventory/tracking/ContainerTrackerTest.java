@@ -0,0 +1,194 @@
+package net.xun.lib.common.api.inventory.tracking;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.InventoryCycleOrder;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import net.xun.lib.common.api.util.InventoryUtils;
+import net.xun.lib.common.internal.inventory.InventoryOps;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContainerTrackerTest {
+
+    private static final InventoryPredicate STONE = InventoryPredicate.matchesItem(Items.STONE);
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void setItemOnlyMarksItsSlotDirty() {
+        TrackedSimpleContainer container = new TrackedSimpleContainer(9);
+        ContainerTracker tracker = container.getContainerTracker();
+        assertTrue(tracker.isAllDirty());
+        tracker.clearDirty();
+
+        // SimpleContainer.setItem fires setChanged() itself, which is covered by the slot change
+        container.setItem(4, new ItemStack(Items.STONE, 3));
+        assertFalse(tracker.isAllDirty());
+        assertTrue(tracker.isSlotDirty(4));
+        assertFalse(tracker.isSlotDirty(3));
+        assertEquals(1, tracker.getDirtySlots().cardinality());
+
+        container.getItem(4).grow(1);
+        container.setChanged();
+        assertTrue(tracker.isAllDirty());
+        assertTrue(tracker.isSlotDirty(0));
+
+        tracker.clearDirty();
+        assertFalse(tracker.isSlotDirty(4));
+        assertTrue(tracker.getDirtySlots().isEmpty());
+    }
+
+    @Test
+    void inventoryOperationsKeepDirtySlotsPrecise() {
+        TrackedSimpleContainer container = new TrackedSimpleContainer(9);
+        container.setItem(0, new ItemStack(Items.STONE, 10));
+        container.setItem(5, new ItemStack(Items.DIRT, 10));
+        ContainerTracker tracker = container.getContainerTracker();
+        tracker.clearDirty();
+
+        SimpleContainer source = new SimpleContainer(new ItemStack(Items.STONE, 60));
+        InventoryUtils.transfer(source, container, STONE, 64, null, null, InventoryCycleOrder.FORWARD);
+        InventoryUtils.extractItems(container, InventoryPredicate.matchesItem(Items.DIRT), 4, null, InventoryCycleOrder.FORWARD);
+
+        assertFalse(tracker.isAllDirty());
+        assertEquals(List.of(0, 1, 5), tracker.getDirtySlots().stream().boxed().toList());
+    }
+
+    @Test
+    void repeatedQueriesWithTheSamePredicateReadNothing() {
+        TrackedSimpleContainer container = new TrackedSimpleContainer(27);
+        container.setItem(3, new ItemStack(Items.STONE, 20));
+        container.setItem(20, new ItemStack(Items.STONE, 30));
+
+        assertEquals(50, InventoryOps.count(container, STONE, 0, 27));
+        assertEquals(3, InventoryOps.findFirst(container, STONE, 0, 27));
+        assertEquals(25, InventoryOps.countEmpty(container, 0, 27));
+
+        container.reads = 0;
+        assertEquals(50, InventoryOps.count(container, STONE, 0, 27));
+        assertEquals(3, InventoryOps.findFirst(container, STONE, 0, 27));
+        assertEquals(25, InventoryOps.countEmpty(container, 0, 27));
+        assertEquals(0, container.reads);
+
+        // Other ranges and kinds are separate entries
+        assertEquals(30, InventoryOps.count(container, STONE, 4, 27));
+        assertEquals(20, InventoryOps.findFirst(container, STONE, 4, 27));
+        assertEquals(22, InventoryOps.countEmpty(container, 4, 27));
+
+        container.setItem(3, ItemStack.EMPTY);
+        assertEquals(30, InventoryOps.count(container, STONE, 0, 27));
+        assertEquals(20, InventoryOps.findFirst(container, STONE, 0, 27));
+        assertEquals(26, InventoryOps.countEmpty(container, 0, 27));
+    }
+
+    @Test
+    void hasCountReusesCountsAndLowerBounds() {
+        TrackedSimpleContainer container = new TrackedSimpleContainer(27);
+        container.setItem(0, new ItemStack(Items.STONE, 20));
+        container.setItem(26, new ItemStack(Items.STONE, 30));
+
+        // Stops at slot 0 and remembers that at least 20 are present
+        assertTrue(InventoryOps.hasCount(container, STONE, 10, 0, 27));
+        container.reads = 0;
+        assertTrue(InventoryOps.hasCount(container, STONE, 20, 0, 27));
+        assertEquals(0, container.reads);
+
+        // A higher threshold scans further and remembers the exact count
+        assertTrue(InventoryOps.hasCount(container, STONE, 50, 0, 27));
+        assertFalse(InventoryOps.hasCount(container, STONE, 51, 0, 27));
+        container.reads = 0;
+        assertFalse(InventoryOps.hasCount(container, STONE, 60, 0, 27));
+        assertEquals(50, InventoryOps.count(container, STONE, 0, 27));
+        assertEquals(0, container.reads);
+
+        container.getItem(26).shrink(30);
+        container.setChanged();
+        assertFalse(InventoryOps.hasCount(container, STONE, 21, 0, 27));
+    }
+
+    @Test
+    void cachedResultsMatchScansUnderRandomChanges() {
+        Random random = new Random(8L);
+        TrackedSimpleContainer container = new TrackedSimpleContainer(18);
+        SimpleContainer plain = new SimpleContainer(18);
+        List<InventoryPredicate> predicates = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            predicates.add(InventoryPredicate.matchesItem(InventoryTestUtils.ITEMS[i % InventoryTestUtils.ITEMS.length]));
+        }
+
+        for (int step = 0; step < 1000; step++) {
+            if (random.nextInt(4) == 0) {
+                int slot = random.nextInt(18);
+                ItemStack stack = random.nextBoolean() ? InventoryTestUtils.randomStack(random) : ItemStack.EMPTY;
+                container.setItem(slot, stack);
+                plain.setItem(slot, stack.copy());
+            }
+
+            InventoryPredicate predicate = predicates.get(random.nextInt(predicates.size()));
+            int start = random.nextInt(9);
+            int end = 9 + random.nextInt(10);
+            int minCount = 1 + random.nextInt(100);
+            String at = "Step " + step;
+
+            assertEquals(InventoryOps.count(plain, predicate, start, end), InventoryOps.count(container, predicate, start, end), at);
+            assertEquals(InventoryOps.findFirst(plain, predicate, start, end), InventoryOps.findFirst(container, predicate, start, end), at);
+            assertEquals(InventoryOps.hasCount(plain, predicate, minCount, start, end),
+                    InventoryOps.hasCount(container, predicate, minCount, start, end), at);
+            assertEquals(InventoryOps.countEmpty(plain, start, end), InventoryOps.countEmpty(container, start, end), at);
+        }
+    }
+
+    /**
+     * Container wired to its tracker like the {@link TrackedContainer} example, counting slot reads.
+     */
+    private static class TrackedSimpleContainer extends SimpleContainer implements TrackedContainer {
+        private final ContainerTracker tracker = new ContainerTracker();
+        private int reads;
+
+        TrackedSimpleContainer(int size) {
+            super(size);
+        }
+
+        @Override
+        public ContainerTracker getContainerTracker() {
+            return tracker;
+        }
+
+        @Override
+        public ItemStack getItem(int slot) {
+            reads++;
+            return super.getItem(slot);
+        }
+
+        @Override
+        public void setItem(int slot, ItemStack stack) {
+            tracker.onSlotChanged(slot);
+            tracker.enterReportedChange();
+            try {
+                super.setItem(slot, stack);
+            } finally {
+                tracker.exitReportedChange();
+            }
+        }
+
+        @Override
+        public void setChanged() {
+            super.setChanged();
+            tracker.onContentsChanged();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package net.xun.lib.common.api.item.fuzzy;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static net.xun.lib.common.api.util.InventoryTestUtils.named;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyMatcherTest {
+
+    private static List<ItemStack> samples;
+    private static List<FuzzyMatcher> symmetricMatchers;
+    private static List<FuzzyMatcher> otherMatchers;
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+
+        ItemStack stoneAtPrototypeLimit = new ItemStack(Items.STONE);
+        stoneAtPrototypeLimit.set(DataComponents.MAX_STACK_SIZE, 64);
+        ItemStack repairedStone = new ItemStack(Items.STONE);
+        repairedStone.set(DataComponents.REPAIR_COST, 3);
+        ItemStack repairedSword = sword(5);
+        repairedSword.set(DataComponents.REPAIR_COST, 3);
+        ItemStack namedSword = named(Items.DIAMOND_SWORD, 1, "A");
+        namedSword.setDamageValue(5);
+
+        samples = List.of(
+                ItemStack.EMPTY,
+                new ItemStack(Items.STONE), new ItemStack(Items.STONE), new ItemStack(Items.STONE, 2),
+                new ItemStack(Items.STONE, 64), stoneAtPrototypeLimit, repairedStone,
+                named(Items.STONE, 1, "A"), named(Items.STONE, 2, "A"), named(Items.STONE, 1, "B"),
+                new ItemStack(Items.DIRT), sword(0), sword(5), repairedSword, namedSword
+        );
+
+        symmetricMatchers = List.of(
+                FuzzyMatcher.STRICT,
+                FuzzyMatcher.BASIC,
+                FuzzyMatcher.IGNORE_ALL,
+                new FuzzyMatcher(new FuzzyConfig().withIgnoreDurability(true).withCountMode(FuzzyConfig.CountMode.IGNORE)),
+                new FuzzyMatcher(new FuzzyConfig()
+                        .withCountMode(FuzzyConfig.CountMode.IGNORE)
+                        .withComponentFilter(FuzzyConfig.FilterMode.WHITELIST, Set.of(DataComponents.CUSTOM_NAME))),
+                new FuzzyMatcher(new FuzzyConfig()
+                        .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.CUSTOM_NAME)))
+        );
+
+        // Count thresholds and custom rules make matching asymmetric or irreflexive
+        otherMatchers = List.of(
+                new FuzzyMatcher(new FuzzyConfig().withCountMode(FuzzyConfig.CountMode.AT_LEAST)),
+                new FuzzyMatcher(new FuzzyConfig()
+                        .withIgnoreDurability(true)
+                        .withCountMode(FuzzyConfig.CountMode.AT_LEAST)
+                        .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.CUSTOM_NAME))),
+                new FuzzyMatcher(new FuzzyConfig()
+                        .withPredicateFilter(FuzzyConfig.FilterMode.WHITELIST, List.of(stack -> stack.getCount() < 2)))
+        );
+    }
+
+    // ======================== COMPONENTS ======================== //
+
+    @Test
+    void blacklistComparesComponentsPatchedOnEitherSide() {
+        FuzzyMatcher matcher = new FuzzyMatcher(new FuzzyConfig()
+                .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.CUSTOM_NAME)));
+        ItemStack stone = new ItemStack(Items.STONE);
+        ItemStack repaired = new ItemStack(Items.STONE);
+        repaired.set(DataComponents.REPAIR_COST, 3);
+        ItemStack limited = new ItemStack(Items.STONE);
+        limited.set(DataComponents.MAX_STACK_SIZE, 16);
+        ItemStack unlimited = new ItemStack(Items.STONE);
+        unlimited.remove(DataComponents.MAX_STACK_SIZE);
+
+        assertFalse(matcher.matches(stone, repaired));
+        assertFalse(matcher.matches(repaired, stone));
+        assertFalse(matcher.matches(limited, stone));
+        assertFalse(matcher.matches(stone, unlimited));
+        assertFalse(matcher.matches(limited, unlimited));
+        assertTrue(matcher.matches(repaired, repaired.copy()));
+    }
+
+    @Test
+    void blacklistSkipsListedComponentsAndPrototypeValues() {
+        FuzzyMatcher matcher = new FuzzyMatcher(new FuzzyConfig()
+                .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.CUSTOM_NAME, DataComponents.REPAIR_COST)));
+        ItemStack repaired = named(Items.STONE, 1, "A");
+        repaired.set(DataComponents.REPAIR_COST, 3);
+        ItemStack explicit = new ItemStack(Items.STONE);
+        explicit.set(DataComponents.MAX_STACK_SIZE, 64);
+
+        assertTrue(matcher.matches(repaired, new ItemStack(Items.STONE)));
+        assertTrue(matcher.matches(new ItemStack(Items.STONE), named(Items.STONE, 1, "B")));
+        assertTrue(matcher.matches(explicit, repaired));
+        assertFalse(matcher.matches(repaired, new ItemStack(Items.DIRT)));
+
+        // Damage is left to the durability setting, even though it is patched
+        FuzzyMatcher ignoreDurability = new FuzzyMatcher(new FuzzyConfig()
+                .withIgnoreDurability(true)
+                .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of()));
+        assertTrue(ignoreDurability.matches(sword(5), sword(0)));
+        assertFalse(FuzzyMatcher.STRICT.matches(sword(5), sword(0)));
+    }
+
+    // ======================== KEYS ======================== //
+
+    @Test
+    void matchingStacksHaveEqualKeys() {
+        for (FuzzyMatcher matcher : allMatchers()) {
+            for (ItemStack a : samples) {
+                for (ItemStack b : samples) {
+                    if (!matcher.matches(a, b)) continue;
+
+                    FuzzyKey keyA = matcher.keyOf(a);
+                    FuzzyKey keyB = matcher.keyOf(b);
+                    assertEquals(keyA, keyB, () -> a + " matches " + b);
+                    assertEquals(keyA.hashCode(), keyB.hashCode(), () -> a + " matches " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    void equalKeysMatchForSymmetricConfigurations() {
+        for (FuzzyMatcher matcher : symmetricMatchers) {
+            for (ItemStack a : samples) {
+                for (ItemStack b : samples) {
+                    boolean sameKey = matcher.keyOf(a).equals(matcher.keyOf(b));
+                    assertEquals(matcher.matches(a, b), sameKey, () -> a + " against " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keysIgnoreComponentsSetToPrototypeValues() {
+        ItemStack explicit = new ItemStack(Items.STONE);
+        explicit.set(DataComponents.MAX_STACK_SIZE, 64);
+
+        assertTrue(FuzzyMatcher.STRICT.matches(explicit, new ItemStack(Items.STONE)));
+        assertEquals(FuzzyMatcher.STRICT.keyOf(new ItemStack(Items.STONE)), FuzzyMatcher.STRICT.keyOf(explicit));
+    }
+
+    @Test
+    void keysFollowBlacklistEdgeCases() {
+        FuzzyMatcher skipName = new FuzzyMatcher(new FuzzyConfig()
+                .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.CUSTOM_NAME)));
+        FuzzyMatcher skipLimit = new FuzzyMatcher(new FuzzyConfig()
+                .withComponentFilter(FuzzyConfig.FilterMode.BLACKLIST, Set.of(DataComponents.MAX_STACK_SIZE)));
+
+        ItemStack stone = new ItemStack(Items.STONE);
+        ItemStack limited = new ItemStack(Items.STONE);
+        limited.set(DataComponents.MAX_STACK_SIZE, 16);
+        ItemStack unlimited = new ItemStack(Items.STONE);
+        unlimited.remove(DataComponents.MAX_STACK_SIZE);
+        ItemStack namedRepaired = named(Items.STONE, 1, "A");
+        namedRepaired.set(DataComponents.REPAIR_COST, 3);
+        ItemStack repaired = new ItemStack(Items.STONE);
+        repaired.set(DataComponents.REPAIR_COST, 3);
+        ItemStack explicitSword = sword(0);
+        explicitSword.set(DataComponents.MAX_DAMAGE, new ItemStack(Items.DIAMOND_SWORD).getMaxDamage());
+        List<ItemStack> stacks = List.of(ItemStack.EMPTY, stone, limited, unlimited, named(Items.STONE, 1, "A"),
+                namedRepaired, repaired, sword(0), explicitSword, new ItemStack(Items.DIRT));
+
+        for (FuzzyMatcher matcher : List.of(skipName, skipLimit)) {
+            for (ItemStack a : stacks) {
+                for (ItemStack b : stacks) {
+                    assertEquals(matcher.matches(a, b), matcher.keyOf(a).equals(matcher.keyOf(b)), () -> a + " against " + b);
+                }
+            }
+        }
+
+        assertNotEquals(skipName.keyOf(stone), skipName.keyOf(unlimited));
+        assertNotEquals(skipName.keyOf(limited), skipName.keyOf(unlimited));
+        assertEquals(skipName.keyOf(stone), skipName.keyOf(named(Items.STONE, 1, "B")));
+        assertEquals(skipName.keyOf(repaired), skipName.keyOf(namedRepaired));
+        assertEquals(skipName.keyOf(sword(0)), skipName.keyOf(explicitSword));
+        assertEquals(skipLimit.keyOf(stone), skipLimit.keyOf(unlimited));
+        assertEquals(skipLimit.keyOf(limited), skipLimit.keyOf(unlimited));
+        assertNotEquals(skipLimit.keyOf(stone), skipLimit.keyOf(ItemStack.EMPTY));
+    }
+
+    // ======================== BIND ======================== //
+
+    @Test
+    void boundPredicatesAgreeWithMatches() {
+        ItemStack unlimited = new ItemStack(Items.STONE);
+        unlimited.remove(DataComponents.MAX_STACK_SIZE);
+        List<ItemStack> stacks = Stream.concat(samples.stream(), Stream.of(unlimited)).toList();
+
+        for (FuzzyMatcher matcher : allMatchers()) {
+            for (ItemStack template : stacks) {
+                if (template.isEmpty()) continue;
+
+                InventoryPredicate bound = matcher.bind(template);
+                assertSame(bound.candidates(), bound.candidates());
+                for (ItemStack stack : stacks) {
+                    assertEquals(matcher.matches(stack, template), bound.test(stack), () -> stack + " against " + template);
+                    if (bound.test(stack)) assertTrue(bound.candidates().mayMatch(stack.getItem()));
+                }
+            }
+        }
+    }
+
+    // ======================== MATCH ALL ======================== //
+
+    @Test
+    void matchAllAssignsAroundEachOthersCandidates() {
+        FuzzyMatcher matcher = new FuzzyMatcher(new FuzzyConfig().withCountMode(FuzzyConfig.CountMode.AT_LEAST));
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 5), new ItemStack(Items.STONE, 1));
+
+        // First-fit in template order would give slot 0 to the first template and starve the second
+        SlotAssignment assignment = matcher.matchAll(
+                List.of(new ItemStack(Items.STONE, 1), new ItemStack(Items.STONE, 5)), container, null);
+
+        assertTrue(assignment.isComplete());
+        assertArrayEquals(new int[] { 1, 0 }, assignment.getSlots());
+    }
+
+    @Test
+    void matchAllUsesEverySlotOnce() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 1), new ItemStack(Items.DIRT, 1));
+
+        SlotAssignment assignment = FuzzyMatcher.IGNORE_ALL.matchAll(
+                List.of(new ItemStack(Items.STONE), new ItemStack(Items.STONE), ItemStack.EMPTY), container, null);
+
+        assertFalse(assignment.isComplete());
+        assertEquals(1, assignment.getMatchedCount());
+        assertEquals(SlotAssignment.UNASSIGNED, assignment.getSlot(2));
+        assertTrue(assignment.getSlot(0) == 0 ^ assignment.getSlot(1) == 0);
+    }
+
+    @Test
+    void matchAllComparesSlotStacksAgainstTemplates() {
+        FuzzyMatcher matcher = new FuzzyMatcher(new FuzzyConfig().withCountMode(FuzzyConfig.CountMode.AT_LEAST));
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 2), ItemStack.EMPTY,
+                new ItemStack(Items.STONE, 3), new ItemStack(Items.STONE, 3));
+
+        assertEquals(SlotAssignment.UNASSIGNED,
+                matcher.matchAll(List.of(new ItemStack(Items.STONE, 4)), container, null).getSlot(0));
+        assertEquals(2, matcher.matchAll(List.of(new ItemStack(Items.STONE, 3)), container, null).getSlot(0));
+        assertEquals(3, matcher.matchAll(List.of(new ItemStack(Items.STONE, 3)), container, SlotRange.of(3, 4)).getSlot(0));
+        assertTrue(matcher.matchAll(List.of(ItemStack.EMPTY), container, null).isComplete());
+    }
+
+    @Test
+    void matchAllWithoutTemplatesIsComplete() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 1), ItemStack.EMPTY);
+
+        SlotAssignment assignment = FuzzyMatcher.STRICT.matchAll(List.of(), container, null);
+
+        assertTrue(assignment.isComplete());
+        assertEquals(0, assignment.getMatchedCount());
+        assertArrayEquals(new int[0], assignment.getSlots());
+    }
+
+    @Test
+    void matchAllOnEmptyOrInvertedRanges() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 1), new ItemStack(Items.DIRT, 1),
+                new ItemStack(Items.STONE, 1), new ItemStack(Items.DIRT, 1));
+        List<ItemStack> templates = List.of(new ItemStack(Items.STONE), new ItemStack(Items.DIRT));
+
+        SlotAssignment empty = FuzzyMatcher.STRICT.matchAll(templates, container, SlotRange.of(2, 2));
+        assertFalse(empty.isComplete());
+        assertEquals(0, empty.getMatchedCount());
+        assertArrayEquals(new int[] { SlotAssignment.UNASSIGNED, SlotAssignment.UNASSIGNED }, empty.getSlots());
+        assertEquals(0, FuzzyMatcher.STRICT.matchAll(templates, container, SlotRange.of(36, 41)).getMatchedCount());
+
+        // An inverted range is swapped to [1, 3)
+        SlotAssignment inverted = FuzzyMatcher.STRICT.matchAll(templates, container, new SlotRange(() -> 3, () -> 1));
+        assertTrue(inverted.isComplete());
+        assertArrayEquals(new int[] { 2, 1 }, inverted.getSlots());
+    }
+
+    @Test
+    void matchAllOnEmptyAndFullContainers() {
+        List<ItemStack> templates = List.of(new ItemStack(Items.STONE), new ItemStack(Items.STONE), ItemStack.EMPTY);
+
+        SlotAssignment none = FuzzyMatcher.IGNORE_ALL.matchAll(templates, new SimpleContainer(9), null);
+        assertFalse(none.isComplete());
+        assertEquals(0, none.getMatchedCount());
+        assertEquals(SlotAssignment.UNASSIGNED, none.getSlot(0));
+        assertEquals(SlotAssignment.UNASSIGNED, none.getSlot(2));
+
+        SimpleContainer full = new SimpleContainer(9);
+        for (int slot = 0; slot < full.getContainerSize(); slot++) {
+            full.setItem(slot, new ItemStack(slot % 2 == 0 ? Items.STONE : Items.DIRT, 64));
+        }
+        SlotAssignment all = FuzzyMatcher.IGNORE_ALL.matchAll(templates, full, null);
+        assertTrue(all.isComplete());
+        assertEquals(2, all.getMatchedCount());
+        assertNotEquals(all.getSlot(0), all.getSlot(1));
+        assertEquals(0, all.getSlot(0) % 2);
+        assertEquals(0, all.getSlot(1) % 2);
+        assertEquals(SlotAssignment.UNASSIGNED, all.getSlot(2));
+
+        // Strict counts fail against full stacks
+        assertEquals(0, FuzzyMatcher.STRICT.matchAll(templates, full, null).getMatchedCount());
+    }
+
+    @Test
+    void matchAllFindsMaximumAssignments() {
+        Random random = new Random(5L);
+        List<FuzzyMatcher> matchers = List.of(FuzzyMatcher.STRICT, FuzzyMatcher.IGNORE_ALL,
+                new FuzzyMatcher(new FuzzyConfig().withCountMode(FuzzyConfig.CountMode.AT_LEAST)));
+
+        for (int trial = 0; trial < 500; trial++) {
+            FuzzyMatcher matcher = matchers.get(trial % matchers.size());
+            SimpleContainer container = new SimpleContainer(6);
+            for (int slot = 0; slot < container.getContainerSize(); slot++) {
+                container.setItem(slot, random.nextInt(4) == 0 ? ItemStack.EMPTY : smallStack(random));
+            }
+            List<ItemStack> templates = new ArrayList<>();
+            int count = random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                templates.add(random.nextInt(6) == 0 ? ItemStack.EMPTY : smallStack(random));
+            }
+            int start = random.nextInt(3);
+            SlotRange range = SlotRange.of(start, start + 4);
+
+            SlotAssignment assignment = matcher.matchAll(templates, container, range);
+
+            boolean[] used = new boolean[container.getContainerSize()];
+            int assigned = 0;
+            int required = 0;
+            for (int t = 0; t < templates.size(); t++) {
+                ItemStack template = templates.get(t);
+                if (!template.isEmpty()) required++;
+
+                int slot = assignment.getSlot(t);
+                if (slot == SlotAssignment.UNASSIGNED) continue;
+
+                String at = "Template " + t + " in trial " + trial;
+                assertTrue(slot >= start && slot < start + 4, at + " is outside the range");
+                assertFalse(used[slot], at + " reuses slot " + slot);
+                assertTrue(matcher.matches(container.getItem(slot), template), at + " does not match slot " + slot);
+                used[slot] = true;
+                assigned++;
+            }
+
+            int maximum = maximumMatching(matcher, templates, container, start, start + 4, 0, new boolean[container.getContainerSize()]);
+            assertEquals(maximum, assigned, "Assigned templates in trial " + trial);
+            assertEquals(maximum, assignment.getMatchedCount(), "Matched count in trial " + trial);
+            assertEquals(maximum == required, assignment.isComplete(), "Completeness in trial " + trial);
+        }
+    }
+
+    // ======================== HELPER METHODS ======================== //
+
+    private static List<FuzzyMatcher> allMatchers() {
+        return Stream.concat(symmetricMatchers.stream(), otherMatchers.stream()).toList();
+    }
+
+    private static ItemStack smallStack(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> named(Items.STONE, 1 + random.nextInt(3), "A");
+            case 1 -> new ItemStack(Items.DIRT, 1 + random.nextInt(3));
+            default -> new ItemStack(Items.STONE, 1 + random.nextInt(3));
+        };
+    }
+
+    /**
+     * Exhaustively computes the largest number of templates that can get distinct matching slots.
+     */
+    private static int maximumMatching(FuzzyMatcher matcher, List<ItemStack> templates, SimpleContainer container,
+                                       int start, int end, int template, boolean[] used) {
+        if (template == templates.size()) return 0;
+
+        int best = maximumMatching(matcher, templates, container, start, end, template + 1, used);
+        ItemStack stack = templates.get(template);
+        if (stack.isEmpty()) return best;
+
+        for (int slot = start; slot < end; slot++) {
+            if (used[slot] || !matcher.matches(container.getItem(slot), stack)) continue;
+
+            used[slot] = true;
+            best = Math.max(best, 1 + maximumMatching(matcher, templates, container, start, end, template + 1, used));
+            used[slot] = false;
+        }
+        return best;
+    }
+
+    private static ItemStack sword(int damage) {
+        ItemStack sword = new ItemStack(Items.DIAMOND_SWORD);
+        sword.setDamageValue(damage);
+        return sword;
+    }
+}
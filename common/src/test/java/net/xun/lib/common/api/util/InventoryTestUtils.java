@@ -0,0 +1,147 @@
+package net.xun.lib.common.api.util;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.exceptions.UtilityClassException;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shared fixtures for inventory unit tests.
+ */
+public final class InventoryTestUtils {
+
+    /** Items with different stack limits, including an unstackable one */
+    public static final Item[] ITEMS = { Items.STONE, Items.DIRT, Items.ENDER_PEARL, Items.DIAMOND_SWORD };
+
+    private InventoryTestUtils() throws UtilityClassException {
+        throw new UtilityClassException();
+    }
+
+    /**
+     * Initializes the vanilla registries. Safe to call from every test class.
+     */
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * Creates a named stack, which never stacks with the unnamed stacks of the same item.
+     */
+    public static ItemStack named(Item item, int count, String name) {
+        ItemStack stack = new ItemStack(item, count);
+        stack.set(DataComponents.CUSTOM_NAME, Component.literal(name));
+        return stack;
+    }
+
+    /**
+     * Creates a random stack of one of the {@link #ITEMS}, named in one out of four cases.
+     */
+    public static ItemStack randomStack(Random random) {
+        Item item = ITEMS[random.nextInt(ITEMS.length)];
+        int count = 1 + random.nextInt(new ItemStack(item).getMaxStackSize());
+        return random.nextInt(4) == 0 ? named(item, count, "Named") : new ItemStack(item, count);
+    }
+
+    /**
+     * Fills a container with random stacks, leaving every other slot empty on average.
+     */
+    public static void fillRandomly(Container container, Random random) {
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            container.setItem(slot, random.nextBoolean() ? randomStack(random) : ItemStack.EMPTY);
+        }
+    }
+
+    /**
+     * Copies the contents of a container into a new {@link SimpleContainer}.
+     */
+    public static SimpleContainer copyOf(Container container) {
+        SimpleContainer copy = new SimpleContainer(container.getContainerSize());
+        copyContents(container, copy);
+        return copy;
+    }
+
+    /**
+     * Overwrites every slot of {@code to} with a copy of the same slot of {@code from}.
+     */
+    public static void copyContents(Container from, Container to) {
+        for (int slot = 0; slot < from.getContainerSize(); slot++) {
+            to.setItem(slot, from.getItem(slot).copy());
+        }
+    }
+
+    /**
+     * Naive single-stack insertion used as the expected behavior: merges into stacks of the same
+     * item and components in slot order, then fills the accepting empty slots in slot order.
+     *
+     * @return Remaining items that didn't fit
+     */
+    public static ItemStack referenceInsert(Container container, ItemStack stack) {
+        ItemStack remaining = stack.copy();
+        for (int slot = 0; slot < container.getContainerSize() && !remaining.isEmpty(); slot++) {
+            ItemStack existing = container.getItem(slot);
+            if (existing.isEmpty() || !ItemStack.isSameItemSameComponents(existing, remaining)) continue;
+
+            int transfer = Math.min(remaining.getCount(), container.getMaxStackSize(existing) - existing.getCount());
+            if (transfer > 0) {
+                container.setItem(slot, existing.copyWithCount(existing.getCount() + transfer));
+                remaining.shrink(transfer);
+            }
+        }
+        for (int slot = 0; slot < container.getContainerSize() && !remaining.isEmpty(); slot++) {
+            if (!container.getItem(slot).isEmpty() || !container.canPlaceItem(slot, remaining)) continue;
+            container.setItem(slot, remaining.split(container.getMaxStackSize(remaining)));
+        }
+        return remaining.isEmpty() ? ItemStack.EMPTY : remaining;
+    }
+
+    /**
+     * Counts an item by scanning every slot.
+     */
+    public static int countOf(Container container, Item item) {
+        int count = 0;
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty() && stack.is(item)) count += stack.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Asserts that both containers hold equal stacks in every slot.
+     */
+    public static void assertSameContents(Container expected, Container actual) {
+        assertEquals(expected.getContainerSize(), actual.getContainerSize(), "Container size");
+        for (int slot = 0; slot < expected.getContainerSize(); slot++) {
+            ItemStack expectedStack = expected.getItem(slot);
+            ItemStack actualStack = actual.getItem(slot);
+            int index = slot;
+            assertTrue(ItemStack.matches(expectedStack, actualStack),
+                    () -> "Slot " + index + ": expected " + expectedStack + " but was " + actualStack);
+        }
+    }
+
+    /**
+     * Asserts that both lists hold equal stacks in the same order.
+     */
+    public static void assertSameStacks(List<ItemStack> expected, List<ItemStack> actual) {
+        assertEquals(expected.size(), actual.size(), () -> "Expected " + expected + " but was " + actual);
+        for (int i = 0; i < expected.size(); i++) {
+            int index = i;
+            assertTrue(ItemStack.matches(expected.get(i), actual.get(i)),
+                    () -> "Stack " + index + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
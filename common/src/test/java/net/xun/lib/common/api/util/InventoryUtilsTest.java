@@ -0,0 +1,469 @@
+package net.xun.lib.common.api.util;
+
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.InventoryCycleOrder;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.inventory.slot.SlotRange;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static net.xun.lib.common.api.util.InventoryTestUtils.assertSameContents;
+import static net.xun.lib.common.api.util.InventoryTestUtils.assertSameStacks;
+import static net.xun.lib.common.api.util.InventoryTestUtils.copyContents;
+import static net.xun.lib.common.api.util.InventoryTestUtils.referenceInsert;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryUtilsTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    // ======================== INSERT ======================== //
+
+    @Test
+    void insertItemsMatchesSequentialInsertion() {
+        Random random = new Random(1L);
+        for (int trial = 0; trial < 300; trial++) {
+            boolean restricted = trial % 2 == 1;
+            Container container = restricted ? restricted(9) : new SimpleContainer(9);
+            InventoryTestUtils.fillRandomly(container, random);
+
+            List<ItemStack> batch = new ArrayList<>();
+            int stacks = 1 + random.nextInt(6);
+            for (int i = 0; i < stacks; i++) {
+                batch.add(InventoryTestUtils.randomStack(random));
+            }
+
+            Container expected = restricted ? restricted(9) : new SimpleContainer(9);
+            copyContents(container, expected);
+            List<ItemStack> expectedLeftovers = new ArrayList<>();
+            for (ItemStack stack : batch) {
+                ItemStack leftover = referenceInsert(expected, stack);
+                if (!leftover.isEmpty()) expectedLeftovers.add(leftover);
+            }
+
+            Container sequential = restricted ? restricted(9) : new SimpleContainer(9);
+            copyContents(container, sequential);
+            List<ItemStack> sequentialLeftovers = new ArrayList<>();
+            for (ItemStack stack : batch) {
+                ItemStack leftover = InventoryUtils.insertItem(sequential, stack);
+                if (!leftover.isEmpty()) sequentialLeftovers.add(leftover);
+            }
+
+            List<ItemStack> leftovers = InventoryUtils.insertItems(container, batch, false);
+
+            assertSameContents(expected, container);
+            assertSameStacks(expectedLeftovers, leftovers);
+            assertSameContents(expected, sequential);
+            assertSameStacks(expectedLeftovers, sequentialLeftovers);
+        }
+    }
+
+    @Test
+    void simulatedInsertLeavesContainerAndInputUntouched() {
+        Random random = new Random(2L);
+        SimpleContainer container = new SimpleContainer(5);
+        InventoryTestUtils.fillRandomly(container, random);
+        SimpleContainer before = InventoryTestUtils.copyOf(container);
+
+        List<ItemStack> batch = List.of(new ItemStack(Items.STONE, 64), new ItemStack(Items.ENDER_PEARL, 16),
+                new ItemStack(Items.DIRT, 64), new ItemStack(Items.STONE, 64));
+        List<ItemStack> batchBefore = batch.stream().map(ItemStack::copy).toList();
+
+        SimpleContainer expected = InventoryTestUtils.copyOf(container);
+        List<ItemStack> expectedLeftovers = new ArrayList<>();
+        for (ItemStack stack : batch) {
+            ItemStack leftover = referenceInsert(expected, stack);
+            if (!leftover.isEmpty()) expectedLeftovers.add(leftover);
+        }
+
+        List<ItemStack> leftovers = InventoryUtils.insertItems(container, batch, true);
+
+        assertSameContents(before, container);
+        assertSameStacks(batchBefore, batch);
+        assertSameStacks(expectedLeftovers, leftovers);
+    }
+
+    @Test
+    void emptySlotRejectedByOneStackStaysAvailableToLaterStacks() {
+        Container container = restricted(2);
+
+        List<ItemStack> leftovers = InventoryUtils.insertItems(container,
+                List.of(new ItemStack(Items.DIRT, 5), new ItemStack(Items.STONE, 5)), false);
+
+        assertTrue(leftovers.isEmpty(), () -> "Unexpected leftovers " + leftovers);
+        assertTrue(ItemStack.matches(new ItemStack(Items.STONE, 5), container.getItem(0)));
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 5), container.getItem(1)));
+    }
+
+    @Test
+    void partialStackPlacedByBatchTakesLaterStacks() {
+        SimpleContainer container = new SimpleContainer(3);
+        container.setItem(2, new ItemStack(Items.DIRT, 1));
+
+        List<ItemStack> leftovers = InventoryUtils.insertItems(container, List.of(new ItemStack(Items.STONE, 40),
+                new ItemStack(Items.DIRT, 70), new ItemStack(Items.STONE, 40)), false);
+
+        assertSameStacks(List.of(new ItemStack(Items.STONE, 16)), leftovers);
+        assertTrue(ItemStack.matches(new ItemStack(Items.STONE, 64), container.getItem(0)));
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 7), container.getItem(1)));
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 64), container.getItem(2)));
+    }
+
+    @Test
+    void insertIntoFullContainerReturnsEveryStackWithoutWriting() {
+        int[] writes = new int[1];
+        SimpleContainer container = new SimpleContainer(2) {
+            @Override
+            public void setItem(int slot, ItemStack stack) {
+                writes[0]++;
+                super.setItem(slot, stack);
+            }
+        };
+        container.setItem(0, new ItemStack(Items.DIRT, 64));
+        container.setItem(1, InventoryTestUtils.named(Items.STONE, 64, "Named"));
+        SimpleContainer before = InventoryTestUtils.copyOf(container);
+        writes[0] = 0;
+
+        List<ItemStack> batch = List.of(new ItemStack(Items.STONE, 10), new ItemStack(Items.DIRT, 5),
+                InventoryTestUtils.named(Items.STONE, 1, "Named"));
+        List<ItemStack> leftovers = InventoryUtils.insertItems(container, batch, false);
+
+        assertSameStacks(batch, leftovers);
+        assertSameContents(before, container);
+        assertEquals(0, writes[0]);
+    }
+
+    @Test
+    void emptyStacksAreIgnored() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 1));
+
+        assertTrue(InventoryUtils.insertItems(container, List.of(ItemStack.EMPTY, ItemStack.EMPTY), false).isEmpty());
+        assertTrue(InventoryUtils.insertItem(container, ItemStack.EMPTY).isEmpty());
+        assertTrue(InventoryUtils.insertItems(container, List.of(), false).isEmpty());
+        assertTrue(ItemStack.matches(new ItemStack(Items.STONE, 1), container.getItem(0)));
+    }
+
+    @Test
+    void unstackableItemsTakeOneSlotEach() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.DIAMOND_SWORD), ItemStack.EMPTY, ItemStack.EMPTY);
+
+        ItemStack leftover = InventoryUtils.insertItem(container, new ItemStack(Items.DIAMOND_SWORD, 3));
+
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIAMOND_SWORD, 1), leftover));
+        for (int slot = 0; slot < 3; slot++) {
+            assertTrue(ItemStack.matches(new ItemStack(Items.DIAMOND_SWORD), container.getItem(slot)));
+        }
+    }
+
+    // ======================== TRANSFER ======================== //
+
+    @Test
+    void transferMatchesSequentialInsertionOfSourceStacks() {
+        Random random = new Random(3L);
+        for (int trial = 0; trial < 300; trial++) {
+            boolean restricted = trial % 2 == 1;
+            SimpleContainer from = new SimpleContainer(9);
+            Container to = restricted ? restricted(9) : new SimpleContainer(9);
+            InventoryTestUtils.fillRandomly(from, random);
+            InventoryTestUtils.fillRandomly(to, random);
+
+            Item item = InventoryTestUtils.ITEMS[random.nextInt(InventoryTestUtils.ITEMS.length)];
+            InventoryPredicate predicate = random.nextBoolean() ? InventoryPredicate.matchesItem(item) : stack -> true;
+            int amount = 1 + random.nextInt(200);
+
+            // Expected: every matching source stack in slot order is inserted on its own until the amount is used up
+            SimpleContainer expectedFrom = InventoryTestUtils.copyOf(from);
+            Container expectedTo = restricted ? restricted(9) : new SimpleContainer(9);
+            copyContents(to, expectedTo);
+            int expectedMoved = 0;
+            for (int slot = 0; slot < expectedFrom.getContainerSize() && expectedMoved < amount; slot++) {
+                ItemStack source = expectedFrom.getItem(slot);
+                if (source.isEmpty() || !predicate.test(source)) continue;
+
+                int offered = Math.min(source.getCount(), amount - expectedMoved);
+                int moved = offered - referenceInsert(expectedTo, source.copyWithCount(offered)).getCount();
+                expectedFrom.setItem(slot, moved == source.getCount() ? ItemStack.EMPTY : source.copyWithCount(source.getCount() - moved));
+                expectedMoved += moved;
+            }
+
+            int moved = InventoryUtils.transfer(from, to, predicate, amount, null, null, InventoryCycleOrder.FORWARD);
+
+            assertEquals(expectedMoved, moved, "Moved items in trial " + trial);
+            assertSameContents(expectedFrom, from);
+            assertSameContents(expectedTo, to);
+        }
+    }
+
+    @Test
+    void destinationSlotRejectedByOneStackStaysAvailableToLaterStacks() {
+        SimpleContainer from = new SimpleContainer(new ItemStack(Items.DIRT, 10), new ItemStack(Items.STONE, 10));
+        Container to = restricted(2);
+
+        int moved = InventoryUtils.transfer(from, to, stack -> true, 64, null, null, InventoryCycleOrder.FORWARD);
+
+        assertEquals(20, moved);
+        assertTrue(from.isEmpty());
+        assertTrue(ItemStack.matches(new ItemStack(Items.STONE, 10), to.getItem(0)));
+        assertTrue(ItemStack.matches(new ItemStack(Items.DIRT, 10), to.getItem(1)));
+    }
+
+    @Test
+    void transferHonorsSlotRangesAndAmount() {
+        SimpleContainer from = new SimpleContainer(new ItemStack(Items.STONE, 30), new ItemStack(Items.STONE, 30),
+                new ItemStack(Items.STONE, 30));
+        SimpleContainer to = new SimpleContainer(4);
+
+        int moved = InventoryUtils.transfer(from, to, InventoryPredicate.matchesItem(Items.STONE), 50,
+                SlotRange.of(1, 3), SlotRange.of(2, 4), InventoryCycleOrder.REVERSE);
+
+        assertEquals(50, moved);
+        assertEquals(30, from.getItem(0).getCount());
+        assertEquals(10, from.getItem(1).getCount());
+        assertTrue(from.getItem(2).isEmpty());
+        assertTrue(to.getItem(0).isEmpty() && to.getItem(1).isEmpty());
+        assertTrue(ItemStack.matches(new ItemStack(Items.STONE, 50), to.getItem(2)));
+        assertTrue(to.getItem(3).isEmpty());
+    }
+
+    @Test
+    void transferIntoFullContainerMovesNothing() {
+        SimpleContainer from = new SimpleContainer(new ItemStack(Items.STONE, 10), new ItemStack(Items.DIRT, 3));
+        SimpleContainer to = new SimpleContainer(new ItemStack(Items.STONE, 64), InventoryTestUtils.named(Items.DIRT, 64, "Named"));
+        SimpleContainer fromBefore = InventoryTestUtils.copyOf(from);
+        SimpleContainer toBefore = InventoryTestUtils.copyOf(to);
+
+        assertEquals(0, InventoryUtils.transfer(from, to, stack -> true, 64, null, null, InventoryCycleOrder.FORWARD));
+        assertSameContents(fromBefore, from);
+        assertSameContents(toBefore, to);
+    }
+
+    @Test
+    void transferStopsWhenSourceRunsOut() {
+        SimpleContainer from = new SimpleContainer(new ItemStack(Items.STONE, 10), ItemStack.EMPTY, new ItemStack(Items.STONE, 5));
+        SimpleContainer to = new SimpleContainer(new ItemStack(Items.STONE, 60), ItemStack.EMPTY);
+
+        assertEquals(15, InventoryUtils.transfer(from, to, InventoryPredicate.matchesItem(Items.STONE), 64, null, null, InventoryCycleOrder.FORWARD));
+        assertTrue(from.getItem(0).isEmpty() && from.getItem(2).isEmpty());
+        assertEquals(64, to.getItem(0).getCount());
+        assertEquals(11, to.getItem(1).getCount());
+
+        assertEquals(0, InventoryUtils.transfer(from, to, stack -> true, 64, null, null, InventoryCycleOrder.FORWARD));
+    }
+
+    @Test
+    void transferRejectsSameContainer() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 1));
+        assertThrows(IllegalArgumentException.class, () -> InventoryUtils.transfer(container, container,
+                stack -> true, 1, null, null, InventoryCycleOrder.FORWARD));
+    }
+
+    // ======================== COMPACT ======================== //
+
+    @Test
+    void compactMergesAndSortsByItemId() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.STONE, 10), new ItemStack(Items.DIRT, 5),
+                new ItemStack(Items.STONE, 60), ItemStack.EMPTY, new ItemStack(Items.DIRT, 10));
+
+        int written = InventoryUtils.compact(container, null, null);
+
+        SimpleContainer expected = new SimpleContainer(new ItemStack(Items.STONE, 64), new ItemStack(Items.STONE, 6),
+                new ItemStack(Items.DIRT, 15), ItemStack.EMPTY, ItemStack.EMPTY);
+        assertSameContents(expected, container);
+        assertEquals(4, written);
+        assertEquals(0, InventoryUtils.compact(container, null, null));
+    }
+
+    @Test
+    void compactKeepsComponentsApartInFirstAppearanceOrder() {
+        SimpleContainer container = new SimpleContainer(InventoryTestUtils.named(Items.STONE, 10, "Named"),
+                new ItemStack(Items.STONE, 10), InventoryTestUtils.named(Items.STONE, 10, "Named"));
+
+        InventoryUtils.compact(container, null, null);
+
+        SimpleContainer expected = new SimpleContainer(InventoryTestUtils.named(Items.STONE, 20, "Named"),
+                new ItemStack(Items.STONE, 10), ItemStack.EMPTY);
+        assertSameContents(expected, container);
+    }
+
+    @Test
+    void compactOrdersSameItemWithComparator() {
+        SimpleContainer container = new SimpleContainer(4);
+        int[] damages = { 5, 0, 3 };
+        for (int i = 0; i < damages.length; i++) {
+            ItemStack sword = new ItemStack(Items.DIAMOND_SWORD);
+            sword.setDamageValue(damages[i]);
+            container.setItem(i + 1, sword);
+        }
+
+        InventoryUtils.compact(container, null, Comparator.comparingInt(ItemStack::getDamageValue));
+
+        assertEquals(0, container.getItem(0).getDamageValue());
+        assertEquals(3, container.getItem(1).getDamageValue());
+        assertEquals(5, container.getItem(2).getDamageValue());
+        assertTrue(container.getItem(3).isEmpty());
+    }
+
+    @Test
+    void compactOnlyTouchesTheRange() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.DIRT, 1), ItemStack.EMPTY,
+                new ItemStack(Items.STONE, 1), new ItemStack(Items.STONE, 1), ItemStack.EMPTY, new ItemStack(Items.DIRT, 1));
+
+        InventoryUtils.compact(container, SlotRange.of(1, 5), null);
+
+        SimpleContainer expected = new SimpleContainer(new ItemStack(Items.DIRT, 1), new ItemStack(Items.STONE, 2),
+                ItemStack.EMPTY, ItemStack.EMPTY, ItemStack.EMPTY, new ItemStack(Items.DIRT, 1));
+        assertSameContents(expected, container);
+    }
+
+    @Test
+    void compactLeavesContainerUntouchedWhenASlotRejectsItsStack() {
+        SimpleContainer container = new SimpleContainer(2) {
+            @Override
+            public boolean canPlaceItem(int slot, ItemStack stack) {
+                return slot != 0;
+            }
+        };
+        container.setItem(1, new ItemStack(Items.STONE, 5));
+
+        assertEquals(0, InventoryUtils.compact(container, null, null));
+        assertTrue(container.getItem(0).isEmpty());
+        assertEquals(5, container.getItem(1).getCount());
+    }
+
+    @Test
+    void compactWritesNothingWhenAlreadyCanonical() {
+        int[] writes = new int[1];
+        SimpleContainer container = new SimpleContainer(4) {
+            @Override
+            public void setItem(int slot, ItemStack stack) {
+                writes[0]++;
+                super.setItem(slot, stack);
+            }
+        };
+        assertEquals(0, InventoryUtils.compact(container, null, null));
+
+        container.setItem(0, new ItemStack(Items.STONE, 64));
+        container.setItem(1, new ItemStack(Items.STONE, 64));
+        container.setItem(2, new ItemStack(Items.DIRT, 64));
+        container.setItem(3, new ItemStack(Items.DIRT, 64));
+        SimpleContainer before = InventoryTestUtils.copyOf(container);
+        writes[0] = 0;
+
+        assertEquals(0, InventoryUtils.compact(container, null, null));
+        assertEquals(0, writes[0]);
+        assertSameContents(before, container);
+    }
+
+    @Test
+    void compactOnEmptyOrInvertedRanges() {
+        SimpleContainer container = new SimpleContainer(new ItemStack(Items.DIRT, 1), new ItemStack(Items.STONE, 1),
+                ItemStack.EMPTY, new ItemStack(Items.STONE, 1));
+        SimpleContainer before = InventoryTestUtils.copyOf(container);
+
+        assertEquals(0, InventoryUtils.compact(container, SlotRange.of(2, 2), null));
+        assertEquals(0, InventoryUtils.compact(container, SlotRange.of(36, 41), null));
+        assertSameContents(before, container);
+
+        // An inverted range is swapped to [1, 4)
+        InventoryUtils.compact(container, new SlotRange(() -> 4, () -> 1), null);
+        SimpleContainer expected = new SimpleContainer(new ItemStack(Items.DIRT, 1), new ItemStack(Items.STONE, 2),
+                ItemStack.EMPTY, ItemStack.EMPTY);
+        assertSameContents(expected, container);
+    }
+
+    @Test
+    void compactProducesCanonicalLayout() {
+        Random random = new Random(4L);
+        for (int trial = 0; trial < 200; trial++) {
+            SimpleContainer container = new SimpleContainer(27);
+            InventoryTestUtils.fillRandomly(container, random);
+
+            // Distinct item + components groups with their totals, before compaction
+            List<ItemStack> groups = new ArrayList<>();
+            List<Integer> totals = new ArrayList<>();
+            for (int slot = 0; slot < container.getContainerSize(); slot++) {
+                ItemStack stack = container.getItem(slot);
+                if (stack.isEmpty()) continue;
+
+                int group = indexOfGroup(groups, stack);
+                if (group < 0) {
+                    groups.add(stack.copyWithCount(1));
+                    totals.add(stack.getCount());
+                } else {
+                    totals.set(group, totals.get(group) + stack.getCount());
+                }
+            }
+
+            InventoryUtils.compact(container, null, null);
+
+            int[] found = new int[groups.size()];
+            int previousGroup = -1;
+            int previousId = -1;
+            boolean previousFull = true;
+            boolean seenEmpty = false;
+            for (int slot = 0; slot < container.getContainerSize(); slot++) {
+                ItemStack stack = container.getItem(slot);
+                if (stack.isEmpty()) {
+                    seenEmpty = true;
+                    continue;
+                }
+                String at = "Slot " + slot + " in trial " + trial;
+                assertFalse(seenEmpty, at + " follows an empty slot");
+
+                int group = indexOfGroup(groups, stack);
+                int id = Item.getId(stack.getItem());
+                assertTrue(group >= 0, at + " holds a new stack");
+                assertTrue(id >= previousId, at + " breaks the item id order");
+                if (group != previousGroup) {
+                    assertEquals(0, found[group], at + " splits a group");
+                } else {
+                    assertTrue(previousFull, at + " follows a partial stack of the same group");
+                }
+
+                found[group] += stack.getCount();
+                previousGroup = group;
+                previousId = id;
+                previousFull = stack.getCount() == container.getMaxStackSize(stack);
+            }
+            for (int group = 0; group < groups.size(); group++) {
+                assertEquals(totals.get(group).intValue(), found[group], "Total of " + groups.get(group) + " in trial " + trial);
+            }
+        }
+    }
+
+    // ======================== HELPER METHODS ======================== //
+
+    private static int indexOfGroup(List<ItemStack> groups, ItemStack stack) {
+        for (int i = 0; i < groups.size(); i++) {
+            if (ItemStack.isSameItemSameComponents(groups.get(i), stack)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Container whose every third slot only accepts stone, like a fuel or ingredient slot.
+     */
+    private static SimpleContainer restricted(int size) {
+        return new SimpleContainer(size) {
+            @Override
+            public boolean canPlaceItem(int slot, ItemStack stack) {
+                return slot % 3 != 0 || stack.is(Items.STONE);
+            }
+        };
+    }
+}
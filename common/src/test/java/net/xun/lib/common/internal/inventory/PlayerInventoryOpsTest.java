@@ -0,0 +1,82 @@
+package net.xun.lib.common.internal.inventory;
+
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.xun.lib.common.api.inventory.PlayerInventorySection;
+import net.xun.lib.common.api.inventory.predicates.InventoryPredicate;
+import net.xun.lib.common.api.util.InventoryTestUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerInventoryOpsTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        InventoryTestUtils.bootstrap();
+    }
+
+    @Test
+    void hasCountStopsOnceTheCountIsReached() {
+        Inventory inventory = new Inventory(null);
+        inventory.setItem(0, new ItemStack(Items.STONE, 64));
+        inventory.setItem(20, new ItemStack(Items.STONE, 64));
+        int[] tests = new int[1];
+        InventoryPredicate stone = stack -> {
+            tests[0]++;
+            return stack.is(Items.STONE);
+        };
+
+        assertTrue(PlayerInventoryOps.hasCount(inventory, stone, 10, 0, 41));
+        assertEquals(1, tests[0]);
+
+        tests[0] = 0;
+        assertTrue(PlayerInventoryOps.hasCount(inventory, stone, 128, 0, 41));
+        assertEquals(2, tests[0]);
+        assertFalse(PlayerInventoryOps.hasCount(inventory, stone, 129, 0, 41));
+    }
+
+    @Test
+    void hasCountSpansCompartments() {
+        Inventory inventory = new Inventory(null);
+        inventory.setItem(35, new ItemStack(Items.STONE, 5));
+        inventory.setItem(38, new ItemStack(Items.STONE, 5));
+        inventory.setItem(40, new ItemStack(Items.STONE, 5));
+        InventoryPredicate stone = InventoryPredicate.matchesItem(Items.STONE);
+
+        assertTrue(PlayerInventoryOps.hasCount(inventory, stone, 15, 0, 41));
+        assertFalse(PlayerInventoryOps.hasCount(inventory, stone, 16, 0, 41));
+        assertTrue(PlayerInventoryOps.hasCount(inventory, stone, 10, 36, 41));
+        assertFalse(PlayerInventoryOps.hasCount(inventory, stone, 6, 40, 41));
+        assertFalse(PlayerInventoryOps.hasCount(inventory, stone, 1, 0, 35));
+    }
+
+    @Test
+    void hasCountMatchesFullCountsForEverySection() {
+        Random random = new Random(14L);
+        for (int trial = 0; trial < 100; trial++) {
+            Inventory inventory = new Inventory(null);
+            InventoryTestUtils.fillRandomly(inventory, random);
+
+            for (PlayerInventorySection section : PlayerInventorySection.values()) {
+                InventoryPredicate predicate = InventoryPredicate.matchesItem(InventoryTestUtils.ITEMS[random.nextInt(InventoryTestUtils.ITEMS.length)]);
+                int count = 0;
+                for (int slot = section.getStart(); slot < section.getEnd(); slot++) {
+                    ItemStack stack = inventory.getItem(slot);
+                    if (!stack.isEmpty() && predicate.test(stack)) count += stack.getCount();
+                }
+
+                for (int minCount = 1; minCount <= count + 1; minCount++) {
+                    assertEquals(count >= minCount, PlayerInventoryOps.hasCount(inventory, predicate, minCount,
+                            section.getStart(), section.getEnd()), section + " with " + minCount + " in trial " + trial);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package net.xun.lib.fabric.internal;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.xun.lib.common.api.registries.TagBitsetCache;
 import net.xun.lib.common.internal.XunLibCommon;
 
 public class XunLibFabric implements ModInitializer {
@@ -8,5 +10,7 @@ public class XunLibFabric implements ModInitializer {
     @Override
     public void onInitialize() {
         XunLibCommon.init();
+
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> TagBitsetCache.invalidateAll());
     }
 }
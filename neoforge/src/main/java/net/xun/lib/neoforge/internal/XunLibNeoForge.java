@@ -2,7 +2,10 @@ package net.xun.lib.neoforge.internal;
 
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
 import net.neoforged.neoforge.registries.DeferredRegister;
+import net.xun.lib.common.api.registries.TagBitsetCache;
 import net.xun.lib.common.internal.XunLibCommon;
 import net.xun.lib.common.internal.XunLibConstants;
 
@@ -21,6 +24,8 @@ public class XunLibNeoForge {
         XunLibNeoForge.modEventBus = modEventBus;
 
         XunLibCommon.init();
+
+        NeoForge.EVENT_BUS.addListener(TagsUpdatedEvent.class, event -> TagBitsetCache.invalidateAll());
     }
 
     public static IEventBus getModEventBus() {